@@ -0,0 +1,54 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.StoreManagementApplication;
+import com.vlad.store.store_management.analytics.ProductColumns;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import com.vlad.store.store_management.search.ProductSearchIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Full application context on a private in-memory H2 database, for benchmarks that
+// go through the service and repository layers rather than calling them in isolation.
+final class BenchmarkContext {
+
+    private static final int SEED_CHUNK = 1000;
+
+    private BenchmarkContext() {
+    }
+
+    // The properties are passed as command-line arguments: default properties would lose
+    // to application.properties for every key it sets (orders.batch-size, cache sizes...)
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime(),
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN"));
+        all.addAll(List.of(properties));
+        return new SpringApplicationBuilder(StoreManagementApplication.class)
+                .run(all.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    // Adds the synthetic catalog on top of the DataInitializer rows, then rebuilds the search index
+    // and the analytics columns
+    static void seed(ConfigurableApplicationContext context, int size) {
+        ProductRepository repository = context.getBean(ProductRepository.class);
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        List<Product> catalog = ProductSearchBenchmark.catalog(size);
+        for (int from = 0; from < size; from += SEED_CHUNK) {
+            List<Product> chunk = new ArrayList<>(SEED_CHUNK);
+            for (Product product : catalog.subList(from, Math.min(from + SEED_CHUNK, size))) {
+                chunk.add(new Product(null, product.getName(), product.getPrice()));
+            }
+            tx.executeWithoutResult(status -> repository.insertBatch(chunk));
+        }
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(ProductColumns.class).rebuild();
+    }
+}
@@ -0,0 +1,61 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.repository.ProductRepository;
+import com.vlad.store.store_management.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// findProductsByCustomCriteria (JPQL LIKE on H2) vs. the service path that answers
+// from the trigram index, at growing catalog sizes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class CustomCriteriaBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    @Param({"Samsung Laptop", "ony"})
+    public String namePart;
+
+    @Param({"1000"})
+    public double minPrice;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductService productService;
+    private TransactionTemplate readOnlyTx;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, catalogSize);
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<?> repositoryJpql() {
+        return readOnlyTx.execute(status -> productRepository.findProductsByCustomCriteria(namePart, minPrice));
+    }
+
+    @Benchmark
+    public List<?> serviceIndexed() {
+        return productService.getProductsByCustomCriteria(namePart, minPrice);
+    }
+}
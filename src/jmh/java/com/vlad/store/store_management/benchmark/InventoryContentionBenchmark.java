@@ -0,0 +1,109 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.service.StockCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Hundreds of threads reserving (and releasing) units of the same SKU.
+// casCounter          = InventoryService's in-memory counter
+// synchronizedCounter = the same arithmetic under a monitor
+// rowLockedUpdate     = conditional UPDATE per reservation, one connection per thread
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(256)
+@Fork(1)
+public class InventoryContentionBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:inventory-bench;DB_CLOSE_DELAY=-1";
+
+    private StockCounter casCounter;
+    private SynchronizedCounter synchronizedCounter;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        casCounter = new StockCounter(1_000_000);
+        synchronizedCounter = new SynchronizedCounter(1_000_000);
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE IF NOT EXISTS stock (product_id BIGINT PRIMARY KEY, on_hand INT NOT NULL)");
+            ddl.execute("MERGE INTO stock (product_id, on_hand) KEY (product_id) VALUES (1, 1000000)");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class JdbcSession {
+
+        Connection connection;
+        PreparedStatement reserve;
+        PreparedStatement release;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = DriverManager.getConnection(URL, "sa", "");
+            reserve = connection.prepareStatement(
+                    "UPDATE stock SET on_hand = on_hand - 1 WHERE product_id = 1 AND on_hand >= 1");
+            release = connection.prepareStatement("UPDATE stock SET on_hand = on_hand + 1 WHERE product_id = 1");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public boolean casCounter() {
+        boolean reserved = casCounter.tryReserve(1);
+        if (reserved) {
+            casCounter.release(1);
+        }
+        return reserved;
+    }
+
+    @Benchmark
+    public boolean synchronizedCounter() {
+        boolean reserved = synchronizedCounter.tryReserve(1);
+        if (reserved) {
+            synchronizedCounter.release(1);
+        }
+        return reserved;
+    }
+
+    @Benchmark
+    public boolean rowLockedUpdate(JdbcSession session) throws SQLException {
+        boolean reserved = session.reserve.executeUpdate() == 1;
+        if (reserved) {
+            session.release.executeUpdate();
+        }
+        return reserved;
+    }
+
+    static final class SynchronizedCounter {
+        private int available;
+
+        SynchronizedCounter(int available) {
+            this.available = available;
+        }
+
+        synchronized boolean tryReserve(int quantity) {
+            if (available < quantity) {
+                return false;
+            }
+            available -= quantity;
+            return true;
+        }
+
+        synchronized void release(int quantity) {
+            available += quantity;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+// Compares two JMH JSON result files (-rf json) benchmark by benchmark and exits
+// with status 1 when any score got worse by more than the threshold.
+//
+// mvn -Pbenchmark test-compile exec:exec \
+//     -Dbench.main=com.vlad.store.store_management.benchmark.JmhResultDiff \
+//     -Djmh.args="baseline.json target/jmh-result.json 10"
+public final class JmhResultDiff {
+
+    private JmhResultDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: JmhResultDiff <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", now.value(), "new");
+                continue;
+            }
+            double change = (now.value() - before.value()) / before.value() * 100.0;
+            // Throughput: higher is better; every other mode measures time, lower is better
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean regression = worse > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.value(), now.value(),
+                    change, regression ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regression(s) over %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            String mode = run.path("mode").asText();
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key(run), new Score(metric.path("score").asDouble(), "thrpt".equals(mode)));
+        }
+        return scores;
+    }
+
+    // Class.method + @Param values + mode identify one result row
+    private static String key(JsonNode run) {
+        String name = run.path("benchmark").asText();
+        name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+        StringJoiner params = new StringJoiner(",", "(", ")").setEmptyValue("");
+        JsonNode values = run.path("params");
+        for (Iterator<String> it = values.fieldNames(); it.hasNext(); ) {
+            String param = it.next();
+            params.add(param + "=" + values.path(param).asText());
+        }
+        return name + params + " [" + run.path("mode").asText() + "]";
+    }
+
+    private record Score(double value, boolean higherIsBetter) {
+    }
+}
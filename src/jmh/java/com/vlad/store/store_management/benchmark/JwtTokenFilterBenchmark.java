@@ -0,0 +1,87 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.security.JwtTokenFilter;
+import com.vlad.store.store_management.security.JwtTokenProvider;
+import com.vlad.store.store_management.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// before = validateToken + getUsername + getRoles (three parses, as the filter used to do)
+// after  = filter end to end, with and without the verified-claims cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+
+    static final String SECRET = "unSecretFoarteLungSiSigurCareAreCelPutin32Caractere!";
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> { };
+
+    private JwtTokenProvider provider;
+    private JwtTokenFilter cachedFilter;
+    private JwtTokenFilter uncachedFilter;
+    private String token;
+    private String authHeader;
+
+    @Setup
+    public void setup() {
+        provider = newProvider();
+        token = provider.generateToken("user1", List.of("ROLE_USER"));
+        authHeader = "Bearer " + token;
+        cachedFilter = new JwtTokenFilter(provider, new VerifiedTokenCache(10_000), new SimpleMeterRegistry());
+        uncachedFilter = new JwtTokenFilter(provider, new VerifiedTokenCache(0), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void legacyTripleParse(Blackhole bh) {
+        if (provider.validateToken(token)) {
+            bh.consume(provider.getUsername(token));
+            bh.consume(provider.getRoles(token));
+        }
+    }
+
+    @Benchmark
+    public void parseVerified(Blackhole bh) {
+        bh.consume(provider.parseVerified(token));
+    }
+
+    @Benchmark
+    public void filterUncached() throws Exception {
+        runFilter(uncachedFilter);
+    }
+
+    @Benchmark
+    public void filterCached() throws Exception {
+        runFilter(cachedFilter);
+    }
+
+    private void runFilter(JwtTokenFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader("Authorization", authHeader);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NOOP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    static JwtTokenProvider newProvider() {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "validityInMilliseconds", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+}
@@ -0,0 +1,61 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Token issue (login path) and parse + signature check (every authenticated request).
+// jjwtBuilder is the previous generateToken: new Claims, JwtBuilder and Mac per call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final List<String> ROLES = List.of("ROLE_USER");
+
+    private JwtTokenProvider provider;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setup() {
+        provider = JwtTokenFilterBenchmark.newProvider();
+        key = Keys.hmacShaKeyFor(JwtTokenFilterBenchmark.SECRET.getBytes());
+        token = provider.generateToken("user1", ROLES);
+    }
+
+    @Benchmark
+    public String jjwtBuilder() {
+        Claims claims = Jwts.claims().setSubject("user1");
+        claims.put("roles", ROLES);
+        Date now = new Date();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + 3_600_000L))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return provider.generateToken("user1", ROLES);
+    }
+
+    @Benchmark
+    public void parseVerified(Blackhole bh) {
+        bh.consume(provider.parseVerified(token));
+    }
+}
@@ -0,0 +1,44 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.controller.AuthController;
+import com.vlad.store.store_management.dto.LoginRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Logins/sec through AuthController: AuthenticationManager, user lookup, token issue.
+// userCacheSize=0 is the previous behaviour (users table hit on every login).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoginBenchmark {
+
+    @Param({"0", "10000"})
+    public int userCacheSize;
+
+    private ConfigurableApplicationContext context;
+    private AuthController authController;
+    private LoginRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("auth.user-cache.max-entries=" + userCacheSize);
+        authController = context.getBean(AuthController.class);
+        request = new LoginRequest("user1", "userpass");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object login() {
+        return authController.login(request).getBody();
+    }
+}
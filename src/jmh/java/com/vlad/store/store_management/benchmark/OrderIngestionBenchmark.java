@@ -0,0 +1,67 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.dto.OrderRequest;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.service.OrderIngestionService;
+import com.vlad.store.store_management.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Orders/sec from submission until persisted, at worker batch sizes 1, 50 and 500.
+// Each invocation submits ORDERS orders and waits until the workers have written them.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderIngestionBenchmark {
+
+    private static final int ORDERS = 10_000;
+
+    @Param({"1", "50", "500"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private OrderIngestionService orderIngestionService;
+    private List<OrderRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start(
+                "orders.batch-size=" + batchSize,
+                "orders.queue.capacity=" + ORDERS);
+        orderIngestionService = context.getBean(OrderIngestionService.class);
+        List<ProductView> products = context.getBean(ProductService.class).getAllProducts();
+        requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            ProductView a = products.get(i % products.size());
+            ProductView b = products.get((i + 1) % products.size());
+            requests.add(new OrderRequest(List.of(
+                    new OrderRequest.Line(a.id(), 1 + i % 3, a.price()),
+                    new OrderRequest.Line(b.id(), 1, b.price()))));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long submitAndPersist() throws InterruptedException {
+        long target = orderIngestionService.processedOrders() + ORDERS;
+        for (OrderRequest request : requests) {
+            orderIngestionService.submit("user1", request);
+        }
+        while (orderIngestionService.processedOrders() < target) {
+            Thread.sleep(0, 100_000);
+        }
+        return target;
+    }
+}
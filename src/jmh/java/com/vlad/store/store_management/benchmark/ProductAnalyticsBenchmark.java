@@ -0,0 +1,117 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.analytics.ProductColumns;
+import com.vlad.store.store_management.dto.PriceHistogram;
+import com.vlad.store.store_management.dto.PriceStats;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// "Count/min/max/avg price by name prefix" and "price histogram" over the catalog:
+// findAll() entities + loop (the JPA way), ProductView projections + loop, and the
+// columnar snapshot behind /api/products/analytics. Run with -prof gc to compare allocation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ProductAnalyticsBenchmark {
+
+    private static final double MIN = 500;
+    private static final double MAX = 4000;
+    private static final int BUCKETS = 20;
+
+    @Param({"10000", "200000"})
+    public int catalogSize;
+
+    // null = whole catalog
+    @Param({"Samsung", "null"})
+    public String namePrefix;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductColumns columns;
+    private String prefix;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, catalogSize);
+        productRepository = context.getBean(ProductRepository.class);
+        columns = context.getBean(ProductColumns.class);
+        prefix = "null".equals(namePrefix) ? null : namePrefix;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PriceStats statsJpaEntities() {
+        long count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Product product : productRepository.findAll()) {
+            Double price = product.getPrice();
+            if (matches(product.getName()) && price != null && price >= MIN && price <= MAX) {
+                count++;
+                sum += price;
+                min = Math.min(min, price);
+                max = Math.max(max, price);
+            }
+        }
+        return PriceStats.of(count, sum, min, max);
+    }
+
+    @Benchmark
+    public PriceStats statsJpaProjections() {
+        long count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (ProductView product : productRepository.findAllViews()) {
+            Double price = product.price();
+            if (matches(product.name()) && price != null && price >= MIN && price <= MAX) {
+                count++;
+                sum += price;
+                min = Math.min(min, price);
+                max = Math.max(max, price);
+            }
+        }
+        return PriceStats.of(count, sum, min, max);
+    }
+
+    @Benchmark
+    public PriceStats statsColumnar() {
+        return columns.priceStats(prefix, MIN, MAX);
+    }
+
+    @Benchmark
+    public long[] histogramJpaEntities() {
+        long[] counts = new long[BUCKETS];
+        double width = (MAX - MIN) / BUCKETS;
+        for (Product product : productRepository.findAll()) {
+            Double price = product.getPrice();
+            if (matches(product.getName()) && price != null && price >= MIN && price <= MAX) {
+                counts[Math.min(BUCKETS - 1, (int) ((price - MIN) / width))]++;
+            }
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public PriceHistogram histogramColumnar() {
+        return columns.priceHistogram(prefix, MIN, MAX, BUCKETS);
+    }
+
+    private boolean matches(String name) {
+        return prefix == null || (name != null && name.startsWith(prefix));
+    }
+}
@@ -0,0 +1,83 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.service.ProductExportService;
+import com.vlad.store.store_management.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Whole-catalog export: GET /api/products (List<ProductView> + one JSON array) vs. the
+// cursor-to-buffer CSV/NDJSON export. "FirstByte" stops at the first write to the
+// response, i.e. time-to-first-byte. Run with -prof gc: the list path allocates with
+// the catalog size, the export only per row.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ProductExportBenchmark {
+
+    private static final IOException FIRST_BYTE = new IOException("first byte");
+
+    @Param({"10000", "500000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductExportService exportService;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, catalogSize);
+        productService = context.getBean(ProductService.class);
+        exportService = context.getBean(ProductExportService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listAsJsonArray() throws IOException {
+        return objectMapper.writeValueAsBytes(productService.getAllProducts()).length;
+    }
+
+    @Benchmark
+    public long exportCsv() throws IOException {
+        return exportService.export(ProductExportService.Format.CSV, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long exportNdjson() throws IOException {
+        return exportService.export(ProductExportService.Format.NDJSON, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public boolean exportNdjsonFirstByte() {
+        try {
+            exportService.export(ProductExportService.Format.NDJSON, new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    throw FIRST_BYTE;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    throw FIRST_BYTE;
+                }
+            });
+            return false;
+        } catch (IOException e) {
+            return e == FIRST_BYTE;
+        }
+    }
+}
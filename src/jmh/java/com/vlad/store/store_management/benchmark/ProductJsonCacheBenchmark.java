@@ -0,0 +1,68 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.cache.ProductJsonCache;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response bodies of GET /api/products/{id} and /search: Jackson per request (what the
+// controllers did before) vs. the pre-encoded bytes of ProductJsonCache.
+// Allocation per operation: -prof gc (gc.alloc.rate.norm); allocation sites: -prof jfr
+// and `jfr print --events jdk.ObjectAllocationSample` on the recording it writes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductJsonCacheBenchmark {
+
+    @Param({"100"})
+    public int searchResults;
+
+    private ObjectMapper objectMapper;
+    private ProductJsonCache jsonCache;
+    private Product product;
+    private List<Product> results;
+    private List<ProductView> resultViews;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonCache = new ProductJsonCache(objectMapper, 10_000, 1024);
+        results = new ArrayList<>(ProductSearchBenchmark.catalog(searchResults));
+        results.forEach(p -> p.setVersion(0));
+        resultViews = results.stream().map(ProductView::of).toList();
+        product = results.get(0);
+        jsonCache.encodeList(resultViews);
+    }
+
+    // The near-cache hands out a fresh entity copy, which Jackson then encodes
+    @Benchmark
+    public byte[] byIdJackson() throws Exception {
+        Product copy = new Product(product.getId(), product.getName(), product.getPrice());
+        copy.setVersion(product.getVersion());
+        return objectMapper.writeValueAsBytes(copy);
+    }
+
+    @Benchmark
+    public byte[] byIdCached() {
+        return jsonCache.get(product.getId(), product.getVersion()).json();
+    }
+
+    @Benchmark
+    public byte[] searchJackson() throws Exception {
+        return objectMapper.writeValueAsBytes(results);
+    }
+
+    @Benchmark
+    public byte[] searchCached() {
+        return jsonCache.encodeList(resultViews).json();
+    }
+}
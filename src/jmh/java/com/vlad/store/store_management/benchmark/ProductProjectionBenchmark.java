@@ -0,0 +1,73 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Read paths of GET /api/products and the JPQL fallback of /search: managed Product
+// entities (what the endpoints returned before) vs. ProductView constructor-expression
+// projections in read-only transactions. Run with -prof gc for bytes allocated per call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ProductProjectionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int catalogSize;
+
+    @Param({"Samsung"})
+    public String namePart;
+
+    @Param({"1000"})
+    public double minPrice;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, catalogSize);
+        productRepository = context.getBean(ProductRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<?> listEntities() {
+        return productRepository.findAll();
+    }
+
+    @Benchmark
+    public List<?> listViews() {
+        return productRepository.findAllViews();
+    }
+
+    // The previous findProductsByCustomCriteria: entity query outside any transaction
+    @Benchmark
+    public List<?> searchEntities() {
+        return entityManager.createQuery(
+                        "SELECT p FROM Product p WHERE p.name LIKE :name AND p.price > :minPrice", Product.class)
+                .setParameter("name", "%" + namePart + "%")
+                .setParameter("minPrice", minPrice)
+                .getResultList();
+    }
+
+    @Benchmark
+    public List<?> searchViews() {
+        return productRepository.findProductsByCustomCriteria(namePart, minPrice);
+    }
+}
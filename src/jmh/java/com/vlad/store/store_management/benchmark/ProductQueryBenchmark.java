@@ -0,0 +1,149 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.dto.ProductQuery;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductQueryCompiler;
+import com.vlad.store.store_management.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// GET /api/products/query with and without the per-shape plan cache.
+// *Compiled: a criteria query built for every call, which Hibernate translates on every run;
+// *PlanCached: the JPQL rendered once per shape, parsed and translated once by Hibernate.
+// prepare*: building the executable query and binding the values; execute*: the same plus
+// running it against a 10k-product catalog.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ProductQueryBenchmark {
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    // 0 = no filters, 1 = name contains, 3 = all four filters
+    @Param({"0", "1", "3"})
+    public int filters;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTx;
+    private ProductQuery query;
+    private String jpql;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, catalogSize);
+        productRepository = context.getBean(ProductRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+        query = switch (filters) {
+            case 0 -> ProductQuery.of(null, null, null, null, "id", "asc", 0, 50);
+            case 1 -> ProductQuery.of("Laptop", null, null, null, "price", "desc", 0, 50);
+            default -> ProductQuery.of("Laptop", "Samsung", 1000.0, 5000.0, "name", "asc", 0, 50);
+        };
+        jpql = ProductQueryCompiler.compile(query.shape());
+        // Warms Hibernate's plan for this shape
+        productRepository.findByQuery(query, 0, 51);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object prepareCompiled() {
+        return readOnlyTx.execute(status -> compiled());
+    }
+
+    @Benchmark
+    public Object preparePlanCached() {
+        return readOnlyTx.execute(status ->
+                ProductQueryCompiler.bind(entityManager.createQuery(jpql, ProductView.class), query));
+    }
+
+    @Benchmark
+    public List<ProductView> executeCompiled() {
+        return readOnlyTx.execute(status -> compiled()
+                .setFirstResult(0)
+                .setMaxResults(51)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<ProductView> executePlanCached() {
+        return productRepository.findByQuery(query, 0, 51);
+    }
+
+    // The same query as ProductQueryCompiler.compile as a criteria tree, with the values bound
+    private TypedQuery<ProductView> compiled() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductView> criteria = cb.createQuery(ProductView.class);
+        Root<Product> p = criteria.from(Product.class);
+        Path<String> name = p.get("name");
+        Path<Double> price = p.get("price");
+        criteria.select(cb.construct(ProductView.class, p.get("id"), name, price, p.get("version")));
+        List<Predicate> where = new ArrayList<>(4);
+        Map<ParameterExpression<?>, Object> values = new HashMap<>();
+        if (query.nameContains() != null) {
+            ParameterExpression<String> value = cb.parameter(String.class);
+            where.add(cb.like(name, value, '\\'));
+            values.put(value, "%" + query.nameContains() + "%");
+        }
+        if (query.namePrefix() != null) {
+            ParameterExpression<String> value = cb.parameter(String.class);
+            where.add(cb.like(name, value, '\\'));
+            values.put(value, query.namePrefix() + "%");
+        }
+        if (query.minPrice() != null) {
+            ParameterExpression<Double> value = cb.parameter(Double.class);
+            where.add(cb.greaterThanOrEqualTo(price, value));
+            values.put(value, query.minPrice());
+        }
+        if (query.maxPrice() != null) {
+            ParameterExpression<Double> value = cb.parameter(Double.class);
+            where.add(cb.lessThanOrEqualTo(price, value));
+            values.put(value, query.maxPrice());
+        }
+        criteria.where(where.toArray(Predicate[]::new));
+        Path<?> sortPath = p.get(query.sort().attribute());
+        Order order = query.descending() ? cb.desc(sortPath) : cb.asc(sortPath);
+        if (query.sort() == ProductQuery.SortKey.ID) {
+            criteria.orderBy(order);
+        } else {
+            criteria.orderBy(order, cb.asc(p.get("id")));
+        }
+        TypedQuery<ProductView> compiled = entityManager.createQuery(criteria);
+        values.forEach((parameter, value) -> bind(compiled, parameter, value));
+        return compiled;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void bind(TypedQuery<?> query, ParameterExpression<T> parameter, Object value) {
+        query.setParameter(parameter, (T) value);
+    }
+}
@@ -0,0 +1,110 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Trigram index vs. the leading-wildcard LIKE the JPQL path sends to H2
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ProductSearchBenchmark {
+
+    static final String[] BRANDS = {"Samsung", "Apple", "Asus", "Lenovo", "Sony", "LG", "Xiaomi", "Dell", "HP", "Philips"};
+    static final String[] KINDS = {"Laptop", "Phone", "TV", "Tablet", "Watch", "Monitor", "Headphones", "Camera"};
+
+    @Param({"1000000"})
+    public int catalogSize;
+
+    @Param({"Samsung Laptop", "Watch 42", "ony"})
+    public String namePart;
+
+    @Param({"1000"})
+    public double minPrice;
+
+    private ProductSearchIndex index;
+    private Connection connection;
+    private PreparedStatement likeQuery;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        index = new ProductSearchIndex(null, null);
+        index.rebuild(catalog(catalogSize));
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:search-bench;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE IF NOT EXISTS product (id BIGINT PRIMARY KEY, name VARCHAR(255), price DOUBLE)");
+            ddl.execute("TRUNCATE TABLE product");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO product (id, name, price) VALUES (?, ?, ?)")) {
+            for (Product product : catalog(catalogSize)) {
+                insert.setLong(1, product.getId());
+                insert.setString(2, product.getName());
+                insert.setDouble(3, product.getPrice());
+                insert.addBatch();
+                if (product.getId() % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        likeQuery = connection.prepareStatement("SELECT id, name, price FROM product WHERE name LIKE ? AND price > ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeQuery.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void trigramIndex(Blackhole bh) {
+        bh.consume(index.search(namePart, minPrice));
+    }
+
+    @Benchmark
+    public void likeFullScan(Blackhole bh) throws SQLException {
+        likeQuery.setString(1, "%" + namePart + "%");
+        likeQuery.setDouble(2, minPrice);
+        try (ResultSet rs = likeQuery.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(new Product(rs.getLong(1), rs.getString(2), rs.getDouble(3)));
+            }
+        }
+    }
+
+    // Deterministic synthetic catalog generated on the fly, never held as a whole list
+    static List<Product> catalog(int size) {
+        return new AbstractList<>() {
+            @Override
+            public Product get(int index) {
+                Random random = new Random(index);
+                String name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                        + KINDS[random.nextInt(KINDS.length)] + " " + random.nextInt(1000);
+                return new Product((long) index + 1, name, (double) random.nextInt(5000));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
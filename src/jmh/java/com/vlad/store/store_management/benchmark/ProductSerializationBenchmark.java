@@ -0,0 +1,49 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vlad.store.store_management.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON encoding of product lists as returned by GET /api/products.
+// objectMapper = what the MVC converter does per response (type resolved each call),
+// typedWriter  = writer bound to List<Product> once.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter typedWriter;
+    private List<Product> products;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        typedWriter = objectMapper.writerFor(new TypeReference<List<Product>>() { });
+        products = new ArrayList<>(ProductSearchBenchmark.catalog(listSize));
+        products.forEach(product -> product.setVersion(0));
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws Exception {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] typedWriter() throws Exception {
+        return typedWriter.writeValueAsBytes(products);
+    }
+}
@@ -0,0 +1,74 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// ProductService CRUD through the real transaction, JPA and H2 stack.
+// cacheSize=0 turns the near-cache off so reads always reach the database.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    @Param({"0", "10000"})
+    public int cacheSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private long firstId;
+    private long nextRead;
+    private Product existing;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("products.cache.max-size=" + cacheSize);
+        BenchmarkContext.seed(context, catalogSize);
+        productService = context.getBean(ProductService.class);
+        firstId = productService.getProductPage(null, 1).getItems().get(0).id();
+        existing = productService.addProduct(new Product(null, "Benchmark Product", 100.0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product getById() {
+        // Cycle through the first 1000 ids so the cache variant sees a realistic working set
+        long id = firstId + (nextRead++ % 1000);
+        return productService.getProductById(id);
+    }
+
+    @Benchmark
+    public void addThenDelete(Blackhole bh) {
+        Product created = productService.addProduct(new Product(null, "Benchmark Temp", 10.0));
+        productService.deleteProduct(created.getId());
+        bh.consume(created);
+    }
+
+    @Benchmark
+    public Product update() {
+        return productService.updateProduct(existing.getId(), new Product(null, "Benchmark Product", nextPrice()));
+    }
+
+    @Benchmark
+    public Product updatePrice() {
+        return productService.updateProductPrice(existing.getId(), nextPrice());
+    }
+
+    private double nextPrice() {
+        return 100.0 + (nextRead++ % 100);
+    }
+}
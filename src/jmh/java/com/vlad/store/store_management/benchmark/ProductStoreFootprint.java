@@ -0,0 +1,143 @@
+package com.vlad.store.store_management.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.cache.OffHeapProductStore;
+import com.vlad.store.store_management.model.Product;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Heap, direct memory and GC cost of holding the whole catalog for reads by id:
+// Product entities in a map on the heap vs. OffHeapProductStore. Run each store in its
+// own JVM with the same heap so the numbers are comparable:
+//
+// JAVA_TOOL_OPTIONS="-Xmx6g -XX:MaxDirectMemorySize=2g -Xlog:gc:file=target/gc-heap.log" \
+// mvn -Pbenchmark test-compile exec:exec \
+//     -Dbench.main=com.vlad.store.store_management.benchmark.ProductStoreFootprint \
+//     -Djmh.args="--products=5000000 --store=heap"
+//
+// then the same with --store=offheap (and gc-offheap.log). Reports go to target/footprint-<store>.txt.
+public final class ProductStoreFootprint {
+
+    private static final String[] BRANDS = {"Samsung", "Apple", "Lenovo", "Xiaomi", "Asus", "Sony", "LG", "HP"};
+    private static final String[] KINDS = {"Phone", "Laptop", "TV", "Headphones", "Tablet", "Monitor", "Watch"};
+
+    private ProductStoreFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int products = Integer.parseInt(arg(args, "--products=", "5000000"));
+        int reads = Integer.parseInt(arg(args, "--reads=", "5000000"));
+        String store = arg(args, "--store=", "heap");
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("store=%s products=%d reads=%d maxHeap=%d MB", store, products, reads,
+                Runtime.getRuntime().maxMemory() >> 20));
+        Snapshot start = Snapshot.take();
+
+        Reader reader;
+        long loadStart = System.nanoTime();
+        if ("offheap".equals(store)) {
+            OffHeapProductStore offHeap = new OffHeapProductStore(null, null, objectMapper, true, products);
+            offHeap.rebuild(() -> catalog(products));
+            reader = id -> offHeap.json(id, 0).json().length;
+        } else {
+            Map<Long, Product> onHeap = new ConcurrentHashMap<>(products * 2);
+            catalog(products).forEachRemaining(product -> onHeap.put(product.getId(), product));
+            reader = id -> objectMapper.writeValueAsBytes(onHeap.get(id)).length;
+        }
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+        Snapshot loaded = Snapshot.take();
+
+        long gcStart = System.nanoTime();
+        System.gc();
+        long fullGcMillis = (System.nanoTime() - gcStart) / 1_000_000;
+        Snapshot settled = Snapshot.take();
+
+        SplittableRandom random = new SplittableRandom(1);
+        long bytes = 0;
+        long readStart = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            bytes += reader.jsonLength(1 + random.nextLong(products));
+        }
+        long readMillis = (System.nanoTime() - readStart) / 1_000_000;
+        Snapshot done = Snapshot.take();
+
+        report.add(String.format("load: %d ms, %d GCs, %d ms GC time", loadMillis,
+                loaded.gcCount - start.gcCount, loaded.gcMillis - start.gcMillis));
+        report.add(String.format("retained after full GC: heap %d MB, direct %d MB; explicit full GC took %d ms",
+                settled.heapUsed >> 20, settled.directUsed >> 20, fullGcMillis));
+        report.add(String.format("reads: %d get+JSON in %d ms (%.0f ns/read, %d bytes), %d GCs, %d ms GC time",
+                reads, readMillis, readMillis * 1e6 / reads, bytes,
+                done.gcCount - settled.gcCount, done.gcMillis - settled.gcMillis));
+
+        report.forEach(System.out::println);
+        Path out = Path.of("target", "footprint-" + store + ".txt");
+        Files.createDirectories(out.getParent());
+        Files.write(out, report);
+    }
+
+    private static Iterator<Product> catalog(int size) {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Product next() {
+                SplittableRandom random = new SplittableRandom(next);
+                long id = ++next;
+                Product product = new Product(id, BRANDS[random.nextInt(BRANDS.length)] + " "
+                        + KINDS[random.nextInt(KINDS.length)] + " " + id, (double) random.nextInt(500_000) / 100);
+                product.setVersion(0);
+                return product;
+            }
+        };
+    }
+
+    private static String arg(String[] args, String prefix, String defaultValue) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(prefix))
+                .map(arg -> arg.substring(prefix.length()))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    @FunctionalInterface
+    private interface Reader {
+        int jsonLength(long id) throws IOException;
+    }
+
+    private record Snapshot(long heapUsed, long directUsed, long gcCount, long gcMillis) {
+
+        static Snapshot take() {
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            long direct = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                    .filter(pool -> "direct".equals(pool.getName()))
+                    .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                    .sum();
+            return new Snapshot(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                    direct, count, millis);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.vlad.store.store_management.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.StoreManagementApplication;
+import com.vlad.store.store_management.SyntheticDataGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Replays a mixed workload (login, get-by-id, search, price patch) with a fixed number of
+// concurrent clients and reports throughput and latency percentiles per operation.
+// Without --url it boots the app in-process on a generated catalog, so it needs no network
+// beyond localhost:
+//
+// mvn -Pbenchmark test-compile exec:exec \
+//     -Dbench.main=com.vlad.store.store_management.loadtest.MixedWorkloadLoadTest \
+//     -Djmh.args="--products=1000000 --users=5000 --clients=200 --seconds=60 --mix=get:70,search:15,login:10,patch:5"
+//
+// Against an app that is already running (seeded with the same --users):
+//     -Djmh.args="--url=http://localhost:8080 --users=5000"
+public final class MixedWorkloadLoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    enum Operation {
+        LOGIN, GET, SEARCH, PATCH
+    }
+
+    private MixedWorkloadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int products = intArg(args, "--products=", 100_000);
+        int users = intArg(args, "--users=", 1_000);
+        int clients = intArg(args, "--clients=", 200);
+        int seconds = intArg(args, "--seconds=", 60);
+        int warmupSeconds = intArg(args, "--warmup=", 10);
+        Map<Operation, Integer> mix = mix(stringArg(args, "--mix=", "get:70,search:15,login:10,patch:5"));
+        Path out = Path.of(stringArg(args, "--out=", "target/loadtest-mixed.txt"));
+        String url = stringArg(args, "--url=", null);
+
+        List<String> report;
+        if (url != null) {
+            report = run(url, users, clients, warmupSeconds, seconds, mix);
+        } else {
+            // devtools would restart main() with the application arguments below instead of ours
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(StoreManagementApplication.class)
+                    // Command-line arguments, so they win over application.properties
+                    .run("--server.port=0",
+                            "--store.generator.products=" + products,
+                            "--store.generator.users=" + users,
+                            "--spring.jpa.show-sql=false")) {
+                int port = Integer.parseInt(app.getEnvironment().getRequiredProperty("local.server.port"));
+                report = run("http://localhost:" + port, users, clients, warmupSeconds, seconds, mix);
+            }
+        }
+
+        report.forEach(System.out::println);
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        Files.write(out, report, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    static List<String> run(String baseUrl, int users, int clients, int warmupSeconds, int seconds,
+                            Map<Operation, Integer> mix) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String userToken = login(http, baseUrl, SyntheticDataGenerator.username(0),
+                SyntheticDataGenerator.username(0) + SyntheticDataGenerator.PASSWORD_SUFFIX);
+        String adminToken = login(http, baseUrl, "admin1", "adminpass");
+        long minId = edgeProductId(http, baseUrl, userToken, "asc");
+        long maxId = edgeProductId(http, baseUrl, userToken, "desc");
+        Workload workload = new Workload(baseUrl, users, userToken, adminToken, minId, maxId, mix);
+
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<ClientStats>> workers = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                workers.add(executor.submit(() -> {
+                    ClientStats stats = new ClientStats();
+                    long now;
+                    while ((now = System.nanoTime()) < deadline) {
+                        Operation operation = workload.nextOperation();
+                        boolean ok;
+                        try {
+                            HttpResponse<Void> response = http.send(workload.request(operation),
+                                    HttpResponse.BodyHandlers.discarding());
+                            ok = response.statusCode() < 400;
+                        } catch (IOException e) {
+                            ok = false;
+                        }
+                        if (now >= measureFrom) {
+                            stats.record(operation, System.nanoTime() - now, ok);
+                        }
+                    }
+                    return stats;
+                }));
+            }
+        }
+
+        ClientStats all = new ClientStats();
+        for (Future<ClientStats> worker : workers) {
+            all.addAll(worker.get());
+        }
+        return all.report(baseUrl, clients, seconds, mix);
+    }
+
+    private static String login(HttpClient http, String baseUrl, String username, String password) throws Exception {
+        HttpResponse<String> response = http.send(loginRequest(baseUrl, username, password),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + username + " failed with " + response.statusCode()
+                    + "; was the app seeded with --users?");
+        }
+        return JSON.readTree(response.body()).get("token").asText();
+    }
+
+    private static HttpRequest loginRequest(String baseUrl, String username, String password) {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static long edgeProductId(HttpClient http, String baseUrl, String token, String direction)
+            throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/products/query?sort=id&size=1&direction=" + direction))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        JsonNode items = JSON.readTree(http.send(request, HttpResponse.BodyHandlers.ofString()).body()).get("items");
+        return items.get(0).get("id").asLong();
+    }
+
+    // "get:70,search:15,..." -> weights per operation
+    static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            mix.put(Operation.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+
+    private static int intArg(String[] args, String prefix, int defaultValue) {
+        String value = stringArg(args, prefix, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static String stringArg(String[] args, String prefix, String defaultValue) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(prefix))
+                .map(arg -> arg.substring(prefix.length()))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    // Builds one request per call; random choices come from the calling thread's generator
+    record Workload(String baseUrl, int users, String userToken, String adminToken, long minId, long maxId,
+                    Map<Operation, Integer> mix) {
+
+        Operation nextOperation() {
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            int r = ThreadLocalRandom.current().nextInt(total);
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                r -= entry.getValue();
+                if (r < 0) {
+                    return entry.getKey();
+                }
+            }
+            return Operation.GET;
+        }
+
+        HttpRequest request(Operation operation) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (operation) {
+                case LOGIN -> {
+                    String username = SyntheticDataGenerator.username(random.nextInt(users));
+                    yield loginRequest(baseUrl, username, username + SyntheticDataGenerator.PASSWORD_SUFFIX);
+                }
+                case GET -> authorized("/api/products/" + randomId(random), userToken).GET().build();
+                case SEARCH -> {
+                    // "<Category> <Series>" is contiguous in generated names; the price floor keeps results small
+                    String namePart = SyntheticDataGenerator.CATEGORIES[random.nextInt(SyntheticDataGenerator.CATEGORIES.length)]
+                            + " " + SyntheticDataGenerator.SERIES[random.nextInt(SyntheticDataGenerator.SERIES.length)];
+                    yield authorized("/api/products/search?namePart=" + URLEncoder.encode(namePart, StandardCharsets.UTF_8)
+                            + "&minPrice=" + (500 + random.nextInt(2500)), userToken).GET().build();
+                }
+                case PATCH -> authorized("/api/products/" + randomId(random) + "/price?price="
+                        + (random.nextInt(1, 5000) - 0.01), adminToken)
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build();
+            };
+        }
+
+        private long randomId(ThreadLocalRandom random) {
+            return random.nextLong(minId, maxId + 1);
+        }
+
+        private HttpRequest.Builder authorized(String path, String token) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+        }
+    }
+
+    static final class ClientStats {
+        private final Map<Operation, VirtualThreadLoadTest.LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, long[]> errors = new EnumMap<>(Operation.class);
+
+        void record(Operation operation, long nanos, boolean ok) {
+            latencies.computeIfAbsent(operation, o -> new VirtualThreadLoadTest.LatencyRecorder()).record(nanos);
+            if (!ok) {
+                errors.computeIfAbsent(operation, o -> new long[1])[0]++;
+            }
+        }
+
+        void addAll(ClientStats other) {
+            other.latencies.forEach((operation, recorder) ->
+                    latencies.computeIfAbsent(operation, o -> new VirtualThreadLoadTest.LatencyRecorder()).addAll(recorder));
+            other.errors.forEach((operation, count) -> errors.computeIfAbsent(operation, o -> new long[1])[0] += count[0]);
+        }
+
+        List<String> report(String baseUrl, int clients, int seconds, Map<Operation, Integer> mix) {
+            List<String> lines = new ArrayList<>();
+            lines.add(String.format("target %s, %d clients, %d s measured, mix %s", baseUrl, clients, seconds, mix));
+            lines.add(String.format("%-7s %10s %10s %9s %9s %9s %9s %9s %8s",
+                    "op", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+            VirtualThreadLoadTest.LatencyRecorder total = new VirtualThreadLoadTest.LatencyRecorder();
+            long totalErrors = 0;
+            for (Operation operation : Operation.values()) {
+                VirtualThreadLoadTest.LatencyRecorder recorder = latencies.get(operation);
+                if (recorder == null) {
+                    continue;
+                }
+                long errorCount = errors.getOrDefault(operation, new long[1])[0];
+                lines.add(line(operation.name().toLowerCase(), recorder, seconds, errorCount));
+                total.addAll(recorder);
+                totalErrors += errorCount;
+            }
+            lines.add(line("all", total, seconds, totalErrors));
+            return lines;
+        }
+
+        private static String line(String name, VirtualThreadLoadTest.LatencyRecorder recorder, int seconds,
+                                   long errorCount) {
+            VirtualThreadLoadTest.Result result = new VirtualThreadLoadTest.Result(recorder.sorted(), seconds, errorCount);
+            return String.format("%-7s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d",
+                    name, result.sortedLatenciesNanos().length, result.throughput(),
+                    result.percentileMillis(50), result.percentileMillis(90), result.percentileMillis(99),
+                    result.percentileMillis(99.9), result.percentileMillis(100), errorCount);
+        }
+    }
+}
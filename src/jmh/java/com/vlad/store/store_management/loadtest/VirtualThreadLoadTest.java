@@ -0,0 +1,188 @@
+package com.vlad.store.store_management.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.StoreManagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Boots the app once per execution mode (platform, then virtual threads) and drives
+// GET /api/products/{id} with a fixed number of concurrent clients.
+//
+// mvn -Pbenchmark test-compile exec:exec \
+//     -Dbench.main=com.vlad.store.store_management.loadtest.VirtualThreadLoadTest \
+//     -Djmh.args="--clients=400 --seconds=30"
+public final class VirtualThreadLoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private VirtualThreadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = intArg(args, "--clients=", 400);
+        int seconds = intArg(args, "--seconds=", 20);
+        int warmupSeconds = intArg(args, "--warmup=", 5);
+        // The near-cache is off by default so every request really blocks on JDBC
+        boolean cache = intArg(args, "--cache=", 0) > 0;
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %8s %12s %10s %10s %10s %8s",
+                "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors"));
+        // devtools would restart main() with the application arguments below instead of ours
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        for (boolean virtual : new boolean[]{false, true}) {
+            // Command-line arguments, so they win over application.properties
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(StoreManagementApplication.class)
+                    .run("--server.port=0",
+                            "--spring.threads.virtual.enabled=" + virtual,
+                            "--products.cache.max-size=" + (cache ? 10_000 : 0),
+                            "--spring.jpa.show-sql=false")) {
+                int port = Integer.parseInt(app.getEnvironment().getRequiredProperty("local.server.port"));
+                Result result = run("http://localhost:" + port, clients, warmupSeconds, seconds);
+                report.add(String.format("%-9s %8d %12.1f %10.2f %10.2f %10.2f %8d",
+                        virtual ? "virtual" : "platform", clients, result.throughput(),
+                        result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(100),
+                        result.errors()));
+            }
+        }
+
+        report.forEach(System.out::println);
+        Path out = Path.of("target", "loadtest-virtual-threads.txt");
+        Files.createDirectories(out.getParent());
+        Files.write(out, report, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    static Result run(String baseUrl, int clients, int warmupSeconds, int seconds) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String token = login(http, baseUrl, "user1", "userpass");
+        long productId = firstProductId(http, baseUrl, token);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/products/" + productId))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<LatencyRecorder>> workers = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                workers.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    long now;
+                    while ((now = System.nanoTime()) < deadline) {
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            long end = System.nanoTime();
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            } else if (now >= measureFrom) {
+                                recorder.record(end - now);
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+        }
+
+        LatencyRecorder all = new LatencyRecorder();
+        for (Future<LatencyRecorder> worker : workers) {
+            all.addAll(worker.get());
+        }
+        return new Result(all.sorted(), seconds, errors.get());
+    }
+
+    private static String login(HttpClient http, String baseUrl, String username, String password) throws Exception {
+        String body = JSON.writeValueAsString(Map.of("username", username, "password", password));
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = http.send(login, HttpResponse.BodyHandlers.ofString());
+        return JSON.readTree(response.body()).get("token").asText();
+    }
+
+    private static long firstProductId(HttpClient http, String baseUrl, String token) throws Exception {
+        HttpRequest page = HttpRequest.newBuilder(URI.create(baseUrl + "/api/products/page?size=1"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        JsonNode items = JSON.readTree(http.send(page, HttpResponse.BodyHandlers.ofString()).body()).get("items");
+        return items.get(0).get("id").asLong();
+    }
+
+    private static int intArg(String[] args, String prefix, int defaultValue) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(prefix))
+                .map(arg -> Integer.parseInt(arg.substring(prefix.length())))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    record Result(long[] sortedLatenciesNanos, int seconds, long errors) {
+
+        double throughput() {
+            return (double) sortedLatenciesNanos.length / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatenciesNanos.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatenciesNanos.length) - 1;
+            return sortedLatenciesNanos[Math.max(0, Math.min(index, sortedLatenciesNanos.length - 1))] / 1_000_000.0;
+        }
+    }
+
+    // Growable primitive buffer so recording does not box every sample
+    static final class LatencyRecorder {
+        private long[] samples = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        void addAll(LatencyRecorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.samples[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
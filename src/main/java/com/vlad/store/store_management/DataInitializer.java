@@ -1,43 +1,79 @@
 package com.vlad.store.store_management;
 
+import com.vlad.store.store_management.event.UserChangedEvent;
 import com.vlad.store.store_management.model.Product;
 import com.vlad.store.store_management.model.User;
 import com.vlad.store.store_management.repository.ProductRepository;
 import com.vlad.store.store_management.repository.UserRepository;
+import com.vlad.store.store_management.snapshot.CatalogSnapshotService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+
+// Runs before StartupWarmup, so the warmup sees the seeded rows.
+// With snapshot.import=<file> the tables are restored from that snapshot instead.
 @Component
+@Order(0)
 public class DataInitializer implements CommandLineRunner {
 
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final CatalogSnapshotService snapshotService;
+    private final ApplicationEventPublisher eventPublisher;
     //private final PasswordEncoder passwordEncoder;
 
+    private final boolean resetOnStartup;
+    private final String snapshotImport;
+
     public DataInitializer(ProductRepository productRepository,
-                           UserRepository userRepository
+                           UserRepository userRepository,
+                           CatalogSnapshotService snapshotService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${store.seed.reset:true}") boolean resetOnStartup,
+                           @Value("${snapshot.import:}") String snapshotImport
                            /*PasswordEncoder passwordEncoder*/) {
         this.productRepository = productRepository;
         this.userRepository = userRepository;
+        this.snapshotService = snapshotService;
+        this.eventPublisher = eventPublisher;
+        this.resetOnStartup = resetOnStartup;
+        this.snapshotImport = snapshotImport;
         //this.passwordEncoder = passwordEncoder;
     }
 
     @Override
     public void run(String... args) throws Exception {
-        // Clear DB
-        productRepository.deleteAll();
-        userRepository.deleteAll();
+        // A snapshot replaces both tables, so there is nothing to clear or seed
+        if (!snapshotImport.isBlank()) {
+            snapshotService.restore(Path.of(snapshotImport));
+            return;
+        }
+
+        // Clear DB (in-memory dev setup); a persistent store keeps its data across restarts
+        if (resetOnStartup) {
+            productRepository.deleteAll();
+            userRepository.deleteAll();
+        }
 
         // Insert products
-        productRepository.save(new Product(null, "Samsung S22", 1500.0));
-        productRepository.save(new Product(null, "iPhone 15", 1700.0));
-        productRepository.save(new Product(null, "Laptop Asus", 4200.0));
+        if (productRepository.count() == 0) {
+            productRepository.save(new Product(null, "Samsung S22", 1500.0));
+            productRepository.save(new Product(null, "iPhone 15", 1700.0));
+            productRepository.save(new Product(null, "Laptop Asus", 4200.0));
+            System.out.println("▶️ DataInitializer: products inserted");
+        }
 
         // Insert users with encoded passwords
-        userRepository.save(new User(null, "user1","userpass", "ROLE_USER"));
-        userRepository.save(new User(null, "admin1", "adminpass", "ROLE_ADMIN"));
-
-        System.out.println("▶️ DataInitializer: products and users inserted");
+        if (userRepository.count() == 0) {
+            userRepository.save(new User(null, "user1","userpass", "ROLE_USER"));
+            userRepository.save(new User(null, "admin1", "adminpass", "ROLE_ADMIN"));
+            System.out.println("▶️ DataInitializer: users inserted");
+        }
+        eventPublisher.publishEvent(UserChangedEvent.all());
     }
 }
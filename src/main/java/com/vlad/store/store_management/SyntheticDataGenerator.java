@@ -0,0 +1,175 @@
+package com.vlad.store.store_management;
+
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Production-sized synthetic data, off by default:
+//   --store.generator.products=2000000 --store.generator.users=5000
+// products is the catalog size to reach, users the number of generated logins.
+// Only the rows missing to reach the targets are added, so a persistent store is
+// filled once. Brands and categories follow a skewed (Zipf-like) popularity and
+// prices are log-normal around a per-category base price; the output is the same
+// for the same seed. Runs after DataInitializer and before the search index is built.
+@Component
+@Order(1)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    public static final String[] BRANDS = {"Samsung", "Apple", "Lenovo", "Xiaomi", "Asus", "Sony", "LG", "HP",
+            "Dell", "Philips", "Bosch", "Logitech", "Acer", "Huawei", "Canon", "JBL"};
+    public static final String[] CATEGORIES = {"Phone", "Laptop", "TV", "Headphones", "Tablet", "Monitor",
+            "Watch", "Speaker", "Camera", "Keyboard", "Mouse", "Charger"};
+    public static final String[] SERIES = {"Pro", "Air", "Max", "Lite", "Plus", "Ultra", "Mini", "Neo", "Prime",
+            "Edge"};
+    // Base price per category, same order as CATEGORIES
+    private static final double[] BASE_PRICES = {700, 1100, 900, 120, 450, 300, 250, 150, 800, 70, 40, 25};
+    private static final double PRICE_SPREAD = 0.6;
+
+    // Generated users log in with <username>-pass
+    public static final String USER_PREFIX = "user";
+    public static final String PASSWORD_SUFFIX = "-pass";
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
+    private static final String COUNT_GENERATED_USERS_SQL = "SELECT COUNT(*) FROM users WHERE username LIKE ?";
+    // "user" and exactly seven more characters: the generated names, not the seeded user1
+    private static final String GENERATED_USER_PATTERN = USER_PREFIX + "_______";
+    private static final int PROGRESS_EVERY = 100_000;
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long targetProducts;
+    private final long targetUsers;
+    private final int batchSize;
+    private final long seed;
+
+    public SyntheticDataGenerator(ProductRepository productRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${store.generator.products:0}") long targetProducts,
+                                  @Value("${store.generator.users:0}") long targetUsers,
+                                  @Value("${store.generator.batch-size:1000}") int batchSize,
+                                  @Value("${store.generator.seed:42}") long seed) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.targetProducts = targetProducts;
+        this.targetUsers = targetUsers;
+        this.batchSize = Math.max(1, batchSize);
+        this.seed = seed;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (targetProducts > 0) {
+            generateProducts();
+        }
+        if (targetUsers > 0) {
+            generateUsers();
+        }
+    }
+
+    private void generateProducts() {
+        long existing = productRepository.count();
+        long missing = targetProducts - existing;
+        if (missing <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        Random random = new Random(seed ^ existing);
+        Sampler brands = new Sampler(BRANDS.length, 0.9);
+        Sampler categories = new Sampler(CATEGORIES.length, 0.7);
+
+        for (long done = 0; done < missing; ) {
+            int size = (int) Math.min(batchSize, missing - done);
+            List<Product> chunk = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                // The running number keeps names unique, so findByName stays a single-row lookup
+                chunk.add(product(random, brands, categories, existing + done + i + 1));
+            }
+            transactionTemplate.executeWithoutResult(status -> productRepository.insertBatch(chunk));
+            done += size;
+            if (done % PROGRESS_EVERY < size) {
+                log.info("Generated {} / {} products", done, missing);
+            }
+        }
+        log.info("Generated {} products in {} ms", missing, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Users user0000000 .. user<N-1>, so a load driver knows every valid login without asking
+    private void generateUsers() {
+        Long generated = jdbcTemplate.queryForObject(COUNT_GENERATED_USERS_SQL, Long.class, GENERATED_USER_PATTERN);
+        long existing = generated != null ? generated : 0;
+        long missing = targetUsers - existing;
+        if (missing <= 0) {
+            return;
+        }
+        // IDENTITY ids rule out Hibernate insert batching, so users go through JDBC batches
+        for (long done = 0; done < missing; ) {
+            int size = (int) Math.min(batchSize, missing - done);
+            List<Object[]> rows = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String username = username(existing + done + i);
+                rows.add(new Object[]{username, username + PASSWORD_SUFFIX, "ROLE_USER"});
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows));
+            done += size;
+        }
+        log.info("Generated {} users, {} to {} (password <username>{})", missing,
+                username(existing), username(existing + missing - 1), PASSWORD_SUFFIX);
+    }
+
+    public static String username(long index) {
+        return USER_PREFIX + String.format("%07d", index);
+    }
+
+    private static Product product(Random random, Sampler brands, Sampler categories, long number) {
+        int category = categories.next(random);
+        String name = BRANDS[brands.next(random)] + " " + CATEGORIES[category] + " "
+                + SERIES[random.nextInt(SERIES.length)] + " " + number;
+        double price = BASE_PRICES[category] * Math.exp(PRICE_SPREAD * random.nextGaussian());
+        // Shelf prices: whole units minus one cent
+        return new Product(null, name, Math.max(1, Math.floor(price)) - 0.01);
+    }
+
+    // Index i is drawn with weight 1 / (i + 1)^exponent
+    private static final class Sampler {
+        private final double[] cumulative;
+
+        Sampler(int size, double exponent) {
+            cumulative = new double[size];
+            double total = 0;
+            for (int i = 0; i < size; i++) {
+                total += 1.0 / Math.pow(i + 1, exponent);
+                cumulative[i] = total;
+            }
+            for (int i = 0; i < size; i++) {
+                cumulative[i] /= total;
+            }
+        }
+
+        int next(Random random) {
+            double r = random.nextDouble();
+            for (int i = 0; i < cumulative.length; i++) {
+                if (r < cumulative[i]) {
+                    return i;
+                }
+            }
+            return cumulative.length - 1;
+        }
+    }
+}
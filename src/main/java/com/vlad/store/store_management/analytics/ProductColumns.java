@@ -0,0 +1,408 @@
+package com.vlad.store.store_management.analytics;
+
+import com.vlad.store.store_management.dto.PriceHistogram;
+import com.vlad.store.store_management.dto.PriceStats;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+// Column-oriented copy of the catalog for aggregates: one row per product spread over
+// primitive arrays (id, price, name code), so a scan touches a few contiguous arrays
+// instead of one object per product. Names are dictionary-encoded; the dictionary is
+// sorted at rebuild time, which turns a name prefix into a range of codes. Names that
+// appear later get codes after the sorted range and are matched one by one; once there
+// are too many of them the dictionary is sorted again. Large scans are split into chunks
+// and run on the common pool.
+@Component
+public class ProductColumns {
+
+    static final int CHUNK_SIZE = 1 << 16;
+    private static final int REBUILD_FETCH_SIZE = 1000;
+    private static final int NULL_NAME = -1;
+    private static final int NULL_VERSION = -1;
+    // The unsorted tail is re-sorted once it grows past this, or past 1/16 of the sorted part
+    static final int MIN_UNSORTED_NAMES = 1024;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Row i is (ids[i], prices[i], nameCodes[i], versions[i]); a NULL price is NaN, which
+    // fails every range test
+    private long[] ids = new long[0];
+    private double[] prices = new double[0];
+    private int[] nameCodes = new int[0];
+    private int[] versions = new int[0];
+    private int size;
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    // Ids are never reused, so an upsert arriving after the delete is a late one
+    private final Set<Long> deleted = new HashSet<>();
+
+    // Codes [0, sortedNames) are in name order; later names are appended in arrival order
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> codesByName = new HashMap<>();
+    private int sortedNames;
+
+    private volatile boolean ready;
+
+    public ProductColumns(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            List<String> names = new ArrayList<>();
+            clear();
+            readOnlyTx.executeWithoutResult(status ->
+                    productRepository.streamAll(REBUILD_FETCH_SIZE, product -> load(product, names)));
+            encodeNames(names);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Iterable<Product> source) {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            List<String> names = new ArrayList<>();
+            clear();
+            for (Product product : source) {
+                load(product, names);
+            }
+            encodeNames(names);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.type() == ProductChangedEvent.Type.DELETE) {
+                deleted.add(event.id());
+                remove(event.id());
+            } else if (!isStale(event)) {
+                upsert(event.id(), event.name(), event.price(), event.version());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Events from concurrent writers can arrive out of order; an older one must not overwrite
+    // a newer row. Unversioned data is always applied.
+    private boolean isStale(ProductChangedEvent event) {
+        if (deleted.contains(event.id())) {
+            return true;
+        }
+        Integer row = rowsById.get(event.id());
+        return row != null && versions[row] != NULL_VERSION && event.version() != null
+                && event.version() <= versions[row];
+    }
+
+    // Count, min, max and average price of the products whose name starts with namePrefix
+    // (any name when null) and whose price lies in [minPrice, maxPrice]; null bounds are open.
+    // Products without a price are not counted. Null until the first rebuild.
+    public PriceStats priceStats(String namePrefix, Double minPrice, Double maxPrice) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            NameFilter names = nameFilter(namePrefix);
+            double lo = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+            double hi = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+            StatsChunk total = chunks()
+                    .mapToObj(chunk -> statsChunk(chunk, names, lo, hi))
+                    .reduce(new StatsChunk(), StatsChunk::merge);
+            return PriceStats.of(total.count, total.sum, total.min, total.max);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Prices in [min, max] of the products matching namePrefix, counted in equal-width buckets.
+    // Null until the first rebuild.
+    public PriceHistogram priceHistogram(String namePrefix, double min, double max, int buckets) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            NameFilter names = nameFilter(namePrefix);
+            double width = (max - min) / buckets;
+            long[] counts = chunks()
+                    .mapToObj(chunk -> histogramChunk(chunk, names, min, max, width, buckets))
+                    .reduce(new long[buckets], ProductColumns::addCounts);
+            return new PriceHistogram(min, max, width, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    int unsortedNames() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size() - sortedNames;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One task per CHUNK_SIZE rows; below two chunks the caller's thread does all the work
+    private IntStream chunks() {
+        int count = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream chunks = IntStream.range(0, count);
+        return count > 1 ? chunks.parallel() : chunks;
+    }
+
+    // Branch-free body over primitive arrays: the JIT unswitches on names.any and
+    // compiles the comparisons to conditional moves
+    private StatsChunk statsChunk(int chunk, NameFilter names, double lo, double hi) {
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(size, from + CHUNK_SIZE);
+        long count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            double price = prices[i];
+            boolean in = price >= lo & price <= hi & (names.any() || names.matches(nameCodes[i]));
+            count += in ? 1 : 0;
+            sum += in ? price : 0;
+            min = Math.min(min, in ? price : Double.POSITIVE_INFINITY);
+            max = Math.max(max, in ? price : Double.NEGATIVE_INFINITY);
+        }
+        return new StatsChunk(count, sum, min, max);
+    }
+
+    private long[] histogramChunk(int chunk, NameFilter names, double min, double max, double width, int buckets) {
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(size, from + CHUNK_SIZE);
+        long[] counts = new long[buckets];
+        for (int i = from; i < to; i++) {
+            double price = prices[i];
+            if (price >= min && price <= max && (names.any() || names.matches(nameCodes[i]))) {
+                counts[Math.min(buckets - 1, (int) ((price - min) / width))]++;
+            }
+        }
+        return counts;
+    }
+
+    private static long[] addCounts(long[] a, long[] b) {
+        long[] sum = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            sum[i] = a[i] + b[i];
+        }
+        return sum;
+    }
+
+    // Prefix -> code range in the sorted part of the dictionary (binary search), plus the
+    // appended names checked individually
+    private NameFilter nameFilter(String prefix) {
+        if (prefix == null) {
+            return new NameFilter(true, 0, 0, sortedNames, null);
+        }
+        List<String> sorted = dictionary.subList(0, sortedNames);
+        int from = lowerBound(sorted, prefix);
+        int to = from;
+        while (to < sortedNames && dictionary.get(to).startsWith(prefix)) {
+            to++;
+        }
+        boolean[] appended = new boolean[dictionary.size() - sortedNames];
+        for (int i = 0; i < appended.length; i++) {
+            appended[i] = dictionary.get(sortedNames + i).startsWith(prefix);
+        }
+        return new NameFilter(false, from, to, sortedNames, appended);
+    }
+
+    private static int lowerBound(List<String> sorted, String key) {
+        int lo = 0;
+        int hi = sorted.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted.get(mid).compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Rebuild, first pass: ids and prices go straight into the columns, names wait for the dictionary
+    private void load(Product product, List<String> names) {
+        if (product.getId() == null || rowsById.containsKey(product.getId())) {
+            return;
+        }
+        ensureCapacity(size + 1);
+        rowsById.put(product.getId(), size);
+        ids[size] = product.getId();
+        prices[size] = product.getPrice() != null ? product.getPrice() : Double.NaN;
+        versions[size] = product.getVersion() != null ? product.getVersion() : NULL_VERSION;
+        names.add(product.getName());
+        size++;
+    }
+
+    // Rebuild, second pass: sorted distinct names become codes 0..n-1
+    private void encodeNames(List<String> names) {
+        names.stream().filter(Objects::nonNull).distinct().sorted().forEach(this::addName);
+        sortedNames = dictionary.size();
+        for (int row = 0; row < size; row++) {
+            String name = names.get(row);
+            nameCodes[row] = name != null ? codesByName.get(name) : NULL_NAME;
+        }
+    }
+
+    private void upsert(long id, String name, Double price, Integer version) {
+        Integer row = rowsById.get(id);
+        if (row == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowsById.put(id, row);
+            ids[row] = id;
+        }
+        prices[row] = price != null ? price : Double.NaN;
+        nameCodes[row] = name != null ? codeOf(name) : NULL_NAME;
+        versions[row] = version != null ? version : NULL_VERSION;
+        if (dictionary.size() - sortedNames > Math.max(MIN_UNSORTED_NAMES, sortedNames / 16)) {
+            resortNames();
+        }
+    }
+
+    // Every unsorted name costs a startsWith per prefix query, so a long tail is folded back
+    // into the sorted range. Names no row uses any more are dropped on the way.
+    private void resortNames() {
+        List<String> names = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            names.add(nameCodes[row] != NULL_NAME ? dictionary.get(nameCodes[row]) : null);
+        }
+        dictionary.clear();
+        codesByName.clear();
+        encodeNames(names);
+    }
+
+    // The last row moves into the gap, keeping the columns dense
+    private void remove(long id) {
+        Integer row = rowsById.remove(id);
+        if (row == null) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            prices[row] = prices[last];
+            nameCodes[row] = nameCodes[last];
+            versions[row] = versions[last];
+            rowsById.put(ids[row], row);
+        }
+    }
+
+    // Codes are never reused: a renamed product's old name stays in the dictionary until the next sort
+    private int codeOf(String name) {
+        Integer code = codesByName.get(name);
+        return code != null ? code : addName(name);
+    }
+
+    private int addName(String name) {
+        int code = dictionary.size();
+        dictionary.add(name);
+        codesByName.put(name, code);
+        return code;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int grown = Math.max(capacity, Math.max(16, ids.length * 2));
+            ids = Arrays.copyOf(ids, grown);
+            prices = Arrays.copyOf(prices, grown);
+            nameCodes = Arrays.copyOf(nameCodes, grown);
+            versions = Arrays.copyOf(versions, grown);
+        }
+    }
+
+    private void clear() {
+        ids = new long[0];
+        prices = new double[0];
+        nameCodes = new int[0];
+        versions = new int[0];
+        size = 0;
+        rowsById.clear();
+        deleted.clear();
+        dictionary.clear();
+        codesByName.clear();
+        sortedNames = 0;
+    }
+
+    private record NameFilter(boolean any, int from, int to, int sortedNames, boolean[] appended) {
+
+        boolean matches(int code) {
+            return code < sortedNames ? code >= from & code < to : appended[code - sortedNames];
+        }
+    }
+
+    private static final class StatsChunk {
+        final long count;
+        final double sum;
+        final double min;
+        final double max;
+
+        StatsChunk() {
+            this(0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        }
+
+        StatsChunk(long count, double sum, double min, double max) {
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        StatsChunk merge(StatsChunk other) {
+            return new StatsChunk(count + other.count, sum + other.sum,
+                    Math.min(min, other.min), Math.max(max, other.max));
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.vlad.store.store_management.audit;
+
+public enum AuditAction {
+    ADD, UPDATE, UPDATE_PRICE, DELETE
+}
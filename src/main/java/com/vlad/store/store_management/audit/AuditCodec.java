@@ -0,0 +1,112 @@
+package com.vlad.store.store_management.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Frame: int payload length, int CRC32 of the payload, payload. A zero length (the
+// zero-filled rest of a segment) or a bad checksum marks the end of the written data.
+final class AuditCodec {
+
+    static final int FRAME_HEADER = 8;
+
+    private static final AuditAction[] ACTIONS = AuditAction.values();
+    private static final byte HAS_PRICE = 1;
+    private static final byte HAS_VERSION = 2;
+
+    private AuditCodec() {
+    }
+
+    // Encodes the payload into scratch (cleared first); returns it flipped for reading
+    static ByteBuffer encode(AuditRecord record, ByteBuffer scratch) {
+        scratch.clear();
+        scratch.putLong(record.sequence());
+        scratch.putLong(record.timestamp());
+        scratch.put((byte) record.action().ordinal());
+        scratch.putLong(record.productId());
+        byte flags = 0;
+        if (record.price() != null) {
+            flags |= HAS_PRICE;
+        }
+        if (record.version() != null) {
+            flags |= HAS_VERSION;
+        }
+        scratch.put(flags);
+        scratch.putDouble(record.price() != null ? record.price() : 0.0);
+        scratch.putInt(record.version() != null ? record.version() : 0);
+        putString(scratch, record.user());
+        putString(scratch, record.name());
+        return scratch.flip();
+    }
+
+    static int checksum(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    // Worst case payload size, used to size the scratch buffer
+    static int maxPayloadSize(AuditRecord record) {
+        return 8 + 8 + 1 + 8 + 1 + 8 + 4 + maxStringSize(record.user()) + maxStringSize(record.name());
+    }
+
+    // Reads frames from the buffer's position until the end of the written data.
+    // Returns the position right after the last valid frame.
+    static int decodeAll(ByteBuffer segment, Consumer<AuditRecord> consumer) {
+        while (segment.remaining() >= FRAME_HEADER) {
+            int start = segment.position();
+            int length = segment.getInt();
+            int crc = segment.getInt();
+            if (length <= 0 || length > segment.remaining()) {
+                return start;
+            }
+            ByteBuffer payload = segment.slice(segment.position(), length);
+            if (checksum(payload) != crc) {
+                return start;
+            }
+            consumer.accept(decode(payload));
+            segment.position(segment.position() + length);
+        }
+        return segment.position();
+    }
+
+    private static AuditRecord decode(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        long timestamp = payload.getLong();
+        AuditAction action = ACTIONS[payload.get()];
+        long productId = payload.getLong();
+        byte flags = payload.get();
+        double price = payload.getDouble();
+        int version = payload.getInt();
+        String user = getString(payload);
+        String name = getString(payload);
+        return new AuditRecord(sequence, timestamp, action, productId, user, name,
+                (flags & HAS_PRICE) != 0 ? price : null,
+                (flags & HAS_VERSION) != 0 ? version : null);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int maxStringSize(String value) {
+        return 4 + (value == null ? 0 : value.length() * 3);
+    }
+}
@@ -0,0 +1,142 @@
+package com.vlad.store.store_management.audit;
+
+import com.vlad.store.store_management.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Append-only audit trail of product mutations. Request threads only enqueue; a single
+// writer thread assigns sequence numbers, encodes and appends to memory-mapped segment
+// files, and forces them to disk whenever the queue runs dry.
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    // Upper bound on the wake-up delay if an unpark races with the writer going idle
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Path dir;
+    private final int segmentSize;
+    private final Queue<AuditRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean idle;
+    private volatile long writtenSequence;
+    private Thread writer;
+
+    public AuditLog(@Value("${audit.dir:data/audit}") Path dir,
+                    @Value("${audit.segment-size:64MB}") DataSize segmentSize) {
+        this.dir = dir;
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, segmentSize.toBytes());
+    }
+
+    public void record(AuditAction action, Product product) {
+        enqueue(new AuditRecord(0, System.currentTimeMillis(), action, product.getId(), currentUser(),
+                product.getName(), product.getPrice(), product.getVersion()));
+    }
+
+    public void recordDelete(Long productId) {
+        enqueue(new AuditRecord(0, System.currentTimeMillis(), AuditAction.DELETE, productId, currentUser(),
+                null, null, null));
+    }
+
+    // Replays records from the given sequence on, up to the last one written so far
+    public void replay(long fromSequence, Consumer<AuditRecord> consumer) {
+        AuditSegments.replay(dir, fromSequence, writtenSequence, consumer);
+    }
+
+    public List<AuditRecord> read(long fromSequence, int limit) {
+        long to = Math.min(writtenSequence, fromSequence + Math.max(0, limit) - 1);
+        List<AuditRecord> records = new ArrayList<>();
+        AuditSegments.replay(dir, fromSequence, to, records::add);
+        return records;
+    }
+
+    // Records accepted but not yet written
+    public long backlog() {
+        return pending.get();
+    }
+
+    public long lastSequence() {
+        return writtenSequence;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        AuditSegmentWriter segments = new AuditSegmentWriter(dir, segmentSize);
+        writtenSequence = segments.lastSequence();
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(() -> write(segments));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+    }
+
+    private void enqueue(AuditRecord record) {
+        queue.offer(record);
+        pending.incrementAndGet();
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void write(AuditSegmentWriter segments) {
+        long next = segments.lastSequence() + 1;
+        boolean unforced = false;
+        while (running || !queue.isEmpty()) {
+            AuditRecord record = queue.poll();
+            if (record == null) {
+                if (unforced) {
+                    segments.force();
+                    unforced = false;
+                }
+                idle = true;
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+                continue;
+            }
+            try {
+                segments.append(record.withSequence(next));
+                writtenSequence = next++;
+                unforced = true;
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not write audit record for product {}", record.productId(), e);
+            } finally {
+                pending.decrementAndGet();
+            }
+        }
+        segments.force();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.vlad.store.store_management.audit;
+
+// One product mutation. user is the JWT subject (null outside an authenticated request);
+// name, price and version are the product state after the change (null for DELETE).
+public record AuditRecord(long sequence,
+                          long timestamp,
+                          AuditAction action,
+                          long productId,
+                          String user,
+                          String name,
+                          Double price,
+                          Integer version) {
+
+    AuditRecord withSequence(long sequence) {
+        return new AuditRecord(sequence, timestamp, action, productId, user, name, price, version);
+    }
+}
@@ -0,0 +1,75 @@
+package com.vlad.store.store_management.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Appends frames to the current memory-mapped segment and rotates to a new file when
+// it is full. Not thread-safe: only the audit writer thread touches it.
+final class AuditSegmentWriter {
+
+    private final Path dir;
+    private final int segmentSize;
+
+    private MappedByteBuffer segment;
+    private ByteBuffer scratch = ByteBuffer.allocate(512);
+    private long lastSequence;
+
+    AuditSegmentWriter(Path dir, int segmentSize) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(dir);
+        List<Path> segments = AuditSegments.list(dir);
+        if (segments.isEmpty()) {
+            return;
+        }
+        // Resume after the last complete frame of the newest segment
+        Path last = segments.get(segments.size() - 1);
+        lastSequence = AuditSegments.firstSequence(last) - 1;
+        segment = AuditSegments.map(last, FileChannel.MapMode.READ_WRITE, segmentSize);
+        int end = AuditCodec.decodeAll(segment.duplicate(), record -> lastSequence = record.sequence());
+        segment.position(end);
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    void append(AuditRecord record) throws IOException {
+        int maxPayload = AuditCodec.maxPayloadSize(record);
+        if (scratch.capacity() < maxPayload) {
+            scratch = ByteBuffer.allocate(Math.max(maxPayload, scratch.capacity() * 2));
+        }
+        ByteBuffer payload = AuditCodec.encode(record, scratch);
+        int frameSize = AuditCodec.FRAME_HEADER + payload.remaining();
+        if (frameSize > segmentSize) {
+            throw new IOException("Audit record " + record.sequence() + " does not fit in a segment");
+        }
+        if (segment == null || segment.remaining() < frameSize) {
+            rotate(record.sequence());
+        }
+        // Payload first, length last: a reader never sees a length without its data
+        int start = segment.position();
+        segment.position(start + AuditCodec.FRAME_HEADER);
+        segment.putInt(start + 4, AuditCodec.checksum(payload));
+        segment.put(payload);
+        segment.putInt(start, frameSize - AuditCodec.FRAME_HEADER);
+        lastSequence = record.sequence();
+    }
+
+    void force() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    private void rotate(long firstSequence) throws IOException {
+        force();
+        segment = AuditSegments.map(AuditSegments.segmentPath(dir, firstSequence),
+                FileChannel.MapMode.READ_WRITE, segmentSize);
+    }
+}
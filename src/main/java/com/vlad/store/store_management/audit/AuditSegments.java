@@ -0,0 +1,83 @@
+package com.vlad.store.store_management.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Segment files are named after the sequence of their first record, so sorting by
+// name is sorting by sequence and a replay can skip whole segments.
+final class AuditSegments {
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".seg";
+
+    private AuditSegments() {
+    }
+
+    static Path segmentPath(Path dir, long firstSequence) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    static List<Path> list(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(AuditSegments::isSegment).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static MappedByteBuffer map(Path segment, FileChannel.MapMode mode, long size) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        try (FileChannel channel = FileChannel.open(segment, options)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(mode, 0, mode == FileChannel.MapMode.READ_ONLY ? channel.size() : size);
+        }
+    }
+
+    // Replays records with sequence in [from, to] in order
+    static void replay(Path dir, long from, long to, Consumer<AuditRecord> consumer) {
+        List<Path> segments = list(dir);
+        for (int i = 0; i < segments.size(); i++) {
+            // Everything in this segment is older than the next segment's first record
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= from) {
+                continue;
+            }
+            if (firstSequence(segments.get(i)) > to) {
+                return;
+            }
+            try {
+                ByteBuffer segment = map(segments.get(i), FileChannel.MapMode.READ_ONLY, 0);
+                AuditCodec.decodeAll(segment, record -> {
+                    if (record.sequence() >= from && record.sequence() <= to) {
+                        consumer.accept(record);
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+}
@@ -0,0 +1,506 @@
+package com.vlad.store.store_management.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Whole catalog outside the Java heap (products.off-heap.enabled, off by default), so
+// millions of products cost the GC nothing to trace. Three direct buffers:
+//   records - one fixed 32-byte slot per product: id, price, version, name offset/length, flags
+//   names   - UTF-8 name bytes, appended; space left by renames is reclaimed when it grows
+//   index   - open addressing (linear probing) from id to slot, 16 bytes per entry
+// Reads copy one slot into a Product, or write the JSON of /api/products/{id} straight
+// from the slot bytes. Built on startup and kept current from ProductChangedEvent.
+@Component
+public class OffHeapProductStore {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapProductStore.class);
+
+    // records slot layout
+    private static final int SLOT = 32;
+    private static final int ID = 0;
+    private static final int PRICE = 8;
+    private static final int VERSION = 16;
+    private static final int NAME_OFFSET = 20;
+    private static final int NAME_LENGTH = 24;
+    private static final int FLAGS = 28;
+
+    private static final int NULL_PRICE = 1;
+    private static final int NULL_VERSION = 1 << 1;
+    private static final int NULL_NAME = 1 << 2;
+    // Name needs JSON escaping or price is NaN/Infinity: Jackson writes those
+    private static final int JACKSON_ONLY = 1 << 3;
+
+    // index entry layout; slot + 1 so that an all-zero entry is free
+    private static final int ENTRY = 16;
+    private static final int KEY = 0;
+    private static final int VALUE = 8;
+    private static final double MAX_LOAD = 0.7;
+
+    private static final int REBUILD_FETCH_SIZE = 1000;
+
+    private static final byte[] ID_FIELD = "{\"id\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NAME_FIELD = ",\"name\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PRICE_FIELD = ",\"price\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VERSION_FIELD = ",\"version\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectWriter productWriter;
+    private final boolean enabled;
+    private final int initialCapacity;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ByteBuffer records;
+    private ByteBuffer names;
+    private ByteBuffer index;
+    private int size;
+    private int namesEnd;
+    private long namesLive;
+    private int indexMask;
+    // Ids are never reused, so an upsert arriving after the delete is a late one. On the heap,
+    // but deletes are rare next to the catalog itself.
+    private final Set<Long> deleted = new HashSet<>();
+
+    private volatile boolean ready;
+
+    public OffHeapProductStore(ProductRepository productRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${products.off-heap.enabled:false}") boolean enabled,
+                               @Value("${products.off-heap.initial-capacity:100000}") int initialCapacity) {
+        this.productRepository = productRepository;
+        this.readOnlyTx = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
+        if (readOnlyTx != null) {
+            readOnlyTx.setReadOnly(true);
+        }
+        this.productWriter = objectMapper.writerFor(Product.class);
+        this.enabled = enabled;
+        this.initialCapacity = Math.max(16, initialCapacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            allocate(initialCapacity);
+            readOnlyTx.executeWithoutResult(status -> productRepository.streamAll(REBUILD_FETCH_SIZE, this::upsert));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Off-heap product store: {} products, {} MB direct memory in {} ms", size(),
+                offHeapBytes() >> 20, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void rebuild(Iterable<Product> source) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            allocate(initialCapacity);
+            for (Product product : source) {
+                upsert(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || event.id() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Changes made while a rebuild streams the table wait for it and are applied on top
+            if (records == null) {
+                return;
+            }
+            if (event.type() == ProductChangedEvent.Type.DELETE) {
+                deleted.add(event.id());
+                remove(event.id());
+            } else if (!isStale(event)) {
+                upsert(event.id(), event.name(), event.price(), event.version());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Events from concurrent writers can arrive out of order; an older one must not replace
+    // the copy json() serves for the current version. Unversioned data is always applied.
+    private boolean isStale(ProductChangedEvent event) {
+        if (deleted.contains(event.id())) {
+            return true;
+        }
+        int slot = find(event.id());
+        if (slot < 0 || event.version() == null) {
+            return false;
+        }
+        int base = slot * SLOT;
+        return (records.getInt(base + FLAGS) & NULL_VERSION) == 0 && event.version() <= records.getInt(base + VERSION);
+    }
+
+    // A fresh Product with the stored state, or null when absent or the store is off / not built
+    public Product get(Long id) {
+        if (!ready || id == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int slot = find(id);
+            return slot < 0 ? null : toProduct(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // JSON of the product, if the stored copy is at exactly this version; same bytes as Jackson
+    public ProductJsonCache.Payload json(Long id, Integer version) {
+        if (!ready || id == null || version == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return null;
+            }
+            int base = slot * SLOT;
+            int flags = records.getInt(base + FLAGS);
+            if ((flags & NULL_VERSION) != 0 || records.getInt(base + VERSION) != version) {
+                return null;
+            }
+            return new ProductJsonCache.Payload(version, (flags & JACKSON_ONLY) != 0
+                    ? jackson(toProduct(slot))
+                    : writeJson(base, flags), null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Direct memory reserved by the three buffers
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return records == null ? 0 : (long) records.capacity() + names.capacity() + index.capacity();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private byte[] writeJson(int base, int flags) {
+        byte[] id = Long.toString(records.getLong(base + ID)).getBytes(StandardCharsets.US_ASCII);
+        byte[] price = (flags & NULL_PRICE) != 0
+                ? NULL
+                : Double.toString(records.getDouble(base + PRICE)).getBytes(StandardCharsets.US_ASCII);
+        byte[] version = Integer.toString(records.getInt(base + VERSION)).getBytes(StandardCharsets.US_ASCII);
+        boolean nullName = (flags & NULL_NAME) != 0;
+        int nameLength = nullName ? NULL.length : records.getInt(base + NAME_LENGTH) + 2;
+
+        byte[] json = new byte[ID_FIELD.length + id.length + NAME_FIELD.length + nameLength
+                + PRICE_FIELD.length + price.length + VERSION_FIELD.length + version.length + 1];
+        int at = put(json, 0, ID_FIELD);
+        at = put(json, at, id);
+        at = put(json, at, NAME_FIELD);
+        if (nullName) {
+            at = put(json, at, NULL);
+        } else {
+            // Plain name bytes: nothing in them needs escaping (checked on write)
+            json[at++] = '"';
+            names.get(records.getInt(base + NAME_OFFSET), json, at, nameLength - 2);
+            at += nameLength - 2;
+            json[at++] = '"';
+        }
+        at = put(json, at, PRICE_FIELD);
+        at = put(json, at, price);
+        at = put(json, at, VERSION_FIELD);
+        at = put(json, at, version);
+        json[at] = '}';
+        return json;
+    }
+
+    private static int put(byte[] target, int at, byte[] bytes) {
+        System.arraycopy(bytes, 0, target, at, bytes.length);
+        return at + bytes.length;
+    }
+
+    private byte[] jackson(Product product) {
+        try {
+            return productWriter.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Product toProduct(int slot) {
+        int base = slot * SLOT;
+        int flags = records.getInt(base + FLAGS);
+        String name = null;
+        if ((flags & NULL_NAME) == 0) {
+            byte[] bytes = new byte[records.getInt(base + NAME_LENGTH)];
+            names.get(records.getInt(base + NAME_OFFSET), bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        Product product = new Product(records.getLong(base + ID), name,
+                (flags & NULL_PRICE) != 0 ? null : records.getDouble(base + PRICE));
+        product.setVersion((flags & NULL_VERSION) != 0 ? null : records.getInt(base + VERSION));
+        return product;
+    }
+
+    private void upsert(Product product) {
+        if (product.getId() != null) {
+            upsert(product.getId(), product.getName(), product.getPrice(), product.getVersion());
+        }
+    }
+
+    private void upsert(long id, String name, Double price, Integer version) {
+        int slot = find(id);
+        if (slot < 0) {
+            slot = size;
+            ensureRecordCapacity(size + 1);
+            ensureIndexCapacity(size + 1);
+            size++;
+            records.putLong(slot * SLOT + ID, id);
+            records.putInt(slot * SLOT + FLAGS, NULL_NAME);
+            insertIndex(id, slot);
+        }
+        int base = slot * SLOT;
+        int flags = 0;
+        releaseName(base);
+        if (name == null) {
+            flags |= NULL_NAME;
+        } else {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            int offset = appendName(bytes);
+            records.putInt(base + NAME_OFFSET, offset);
+            records.putInt(base + NAME_LENGTH, bytes.length);
+            if (needsEscaping(name)) {
+                flags |= JACKSON_ONLY;
+            }
+        }
+        if (price == null) {
+            flags |= NULL_PRICE;
+        } else {
+            records.putDouble(base + PRICE, price);
+            if (!Double.isFinite(price)) {
+                flags |= JACKSON_ONLY;
+            }
+        }
+        if (version == null) {
+            flags |= NULL_VERSION;
+        } else {
+            records.putInt(base + VERSION, version);
+        }
+        records.putInt(base + FLAGS, flags);
+    }
+
+    // The last slot moves into the gap, so the records stay dense
+    private void remove(long id) {
+        int slot = find(id);
+        if (slot < 0) {
+            return;
+        }
+        releaseName(slot * SLOT);
+        removeIndex(id);
+        int last = --size;
+        if (slot != last) {
+            ByteBuffer moved = records.slice(last * SLOT, SLOT);
+            records.put(slot * SLOT, moved, 0, SLOT);
+            long movedId = records.getLong(slot * SLOT + ID);
+            removeIndex(movedId);
+            insertIndex(movedId, slot);
+        }
+    }
+
+    private void releaseName(int base) {
+        if ((records.getInt(base + FLAGS) & NULL_NAME) == 0) {
+            namesLive -= records.getInt(base + NAME_LENGTH);
+            records.putInt(base + FLAGS, records.getInt(base + FLAGS) | NULL_NAME);
+        }
+    }
+
+    private int appendName(byte[] bytes) {
+        if (namesEnd + bytes.length > names.capacity()) {
+            compactNames(bytes.length);
+        }
+        int offset = namesEnd;
+        names.put(offset, bytes);
+        namesEnd += bytes.length;
+        namesLive += bytes.length;
+        return offset;
+    }
+
+    // Copies only the names still referenced into a buffer with room for growth
+    private void compactNames(int needed) {
+        long capacity = Math.max(1024, 2 * (namesLive + needed));
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Off-heap name arena above 2 GB");
+        }
+        ByteBuffer compacted = ByteBuffer.allocateDirect((int) capacity);
+        int end = 0;
+        for (int slot = 0; slot < size; slot++) {
+            int base = slot * SLOT;
+            if ((records.getInt(base + FLAGS) & NULL_NAME) != 0) {
+                continue;
+            }
+            int length = records.getInt(base + NAME_LENGTH);
+            compacted.put(end, names, records.getInt(base + NAME_OFFSET), length);
+            records.putInt(base + NAME_OFFSET, end);
+            end += length;
+        }
+        names = compacted;
+        namesEnd = end;
+    }
+
+    private void ensureRecordCapacity(int slots) {
+        if ((long) slots * SLOT <= records.capacity()) {
+            return;
+        }
+        long capacity = Math.max((long) slots, 2L * records.capacity() / SLOT) * SLOT;
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Off-heap product records above 2 GB");
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect((int) capacity).order(ByteOrder.nativeOrder());
+        grown.put(0, records, 0, size * SLOT);
+        records = grown;
+    }
+
+    private void ensureIndexCapacity(int entries) {
+        int capacity = indexMask + 1;
+        if (entries <= capacity * MAX_LOAD) {
+            return;
+        }
+        ByteBuffer old = index;
+        allocateIndex(capacity * 2);
+        for (int i = 0; i < capacity; i++) {
+            int value = old.getInt(i * ENTRY + VALUE);
+            if (value != 0) {
+                insertIndex(old.getLong(i * ENTRY + KEY), value - 1);
+            }
+        }
+    }
+
+    private int find(long id) {
+        for (int i = hash(id) & indexMask; ; i = (i + 1) & indexMask) {
+            int value = index.getInt(i * ENTRY + VALUE);
+            if (value == 0) {
+                return -1;
+            }
+            if (index.getLong(i * ENTRY + KEY) == id) {
+                return value - 1;
+            }
+        }
+    }
+
+    private void insertIndex(long id, int slot) {
+        int i = hash(id) & indexMask;
+        while (index.getInt(i * ENTRY + VALUE) != 0) {
+            i = (i + 1) & indexMask;
+        }
+        index.putLong(i * ENTRY + KEY, id);
+        index.putInt(i * ENTRY + VALUE, slot + 1);
+    }
+
+    // Backward-shift deletion: later entries of the probe run move up, so no tombstones are needed
+    private void removeIndex(long id) {
+        int i = hash(id) & indexMask;
+        while (index.getLong(i * ENTRY + KEY) != id || index.getInt(i * ENTRY + VALUE) == 0) {
+            if (index.getInt(i * ENTRY + VALUE) == 0) {
+                return;
+            }
+            i = (i + 1) & indexMask;
+        }
+        int gap = i;
+        for (int j = (gap + 1) & indexMask; index.getInt(j * ENTRY + VALUE) != 0; j = (j + 1) & indexMask) {
+            int home = hash(index.getLong(j * ENTRY + KEY)) & indexMask;
+            // The entry at j may fill the gap only if its home is not in (gap, j]
+            if (((j - home) & indexMask) >= ((j - gap) & indexMask)) {
+                index.putLong(gap * ENTRY + KEY, index.getLong(j * ENTRY + KEY));
+                index.putInt(gap * ENTRY + VALUE, index.getInt(j * ENTRY + VALUE));
+                gap = j;
+            }
+        }
+        index.putLong(gap * ENTRY + KEY, 0);
+        index.putInt(gap * ENTRY + VALUE, 0);
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        records = ByteBuffer.allocateDirect(capacity * SLOT).order(ByteOrder.nativeOrder());
+        names = ByteBuffer.allocateDirect(capacity * 24);
+        namesEnd = 0;
+        namesLive = 0;
+        size = 0;
+        deleted.clear();
+        allocateIndex(Integer.highestOneBit((int) (capacity / MAX_LOAD)) * 2);
+    }
+
+    private void allocateIndex(int capacity) {
+        index = ByteBuffer.allocateDirect(capacity * ENTRY).order(ByteOrder.nativeOrder());
+        indexMask = capacity - 1;
+    }
+
+    // What Jackson would escape: quotes, backslashes and control characters
+    private static boolean needsEscaping(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,191 @@
+package com.vlad.store.store_management.cache;
+
+import com.vlad.store.store_management.dto.CacheStats;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Near-cache in front of ProductRepository for lookups by id and by name.
+// Entries are immutable snapshots; callers always get a fresh Product copy.
+@Component
+public class ProductCache {
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> byName = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public ProductCache(@Value("${products.cache.max-size:10000}") int maxSize,
+                        @Value("${products.cache.ttl:PT5M}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    ProductCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public Product getById(Long id) {
+        Entry entry = live(id);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.toProduct();
+    }
+
+    public Product getByName(String name) {
+        Long id = byName.get(name);
+        Entry entry = id != null ? live(id) : null;
+        // The name index only points at ids; a renamed entry means the mapping is stale
+        if (entry == null || !name.equals(entry.name)) {
+            if (id != null) {
+                byName.remove(name, id);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.toProduct();
+    }
+
+    // Read a stamp before going to the database and pass it to put(): a load that
+    // raced with an invalidation is then discarded instead of caching stale data.
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void put(Product product, long stamp) {
+        if (maxSize <= 0 || product == null || product.getId() == null || invalidations.get() != stamp) {
+            return;
+        }
+        Long id = product.getId();
+        Entry entry = new Entry(id, product.getName(), product.getPrice(), product.getVersion(),
+                nanoClock.getAsLong() + ttlNanos);
+        byId.put(id, entry);
+        if (product.getName() != null) {
+            byName.put(product.getName(), id);
+        }
+        if (invalidations.get() != stamp) {
+            remove(entry);
+            return;
+        }
+        evictIfFull();
+    }
+
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet();
+        Entry removed = byId.remove(id);
+        if (removed != null && removed.name != null) {
+            byName.remove(removed.name, id);
+        }
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        byId.clear();
+        byName.clear();
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.id());
+    }
+
+    public CacheStats stats() {
+        return CacheStats.of(hits.sum(), misses.sum(), evictions.sum(), byId.size());
+    }
+
+    // Names mapped to an id; never more than the entries held
+    int nameCount() {
+        return byName.size();
+    }
+
+    private Entry live(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAtNanos >= 0) {
+            if (remove(entry)) {
+                evictions.increment();
+            }
+            return null;
+        }
+        entry.referenced = true;
+        return entry;
+    }
+
+    // CLOCK-style eviction: entries read since the last sweep get a second chance
+    private void evictIfFull() {
+        for (int pass = 0; pass < 2 && byId.size() > maxSize; pass++) {
+            Iterator<Map.Entry<Long, Entry>> it = byId.entrySet().iterator();
+            while (byId.size() > maxSize && it.hasNext()) {
+                Map.Entry<Long, Entry> candidate = it.next();
+                Entry entry = candidate.getValue();
+                if (entry.referenced) {
+                    entry.referenced = false;
+                    continue;
+                }
+                if (remove(entry)) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    // Drops the entry together with its name mapping, unless it was already replaced
+    private boolean remove(Entry entry) {
+        if (!byId.remove(entry.id, entry)) {
+            return false;
+        }
+        if (entry.name != null) {
+            byName.remove(entry.name, entry.id);
+        }
+        return true;
+    }
+
+    private static final class Entry {
+        final Long id;
+        final String name;
+        final Double price;
+        final Integer version;
+        final long expiresAtNanos;
+        volatile boolean referenced;
+
+        Entry(Long id, String name, Double price, Integer version, long expiresAtNanos) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+            this.version = version;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        Product toProduct() {
+            Product product = new Product(id, name, price);
+            product.setVersion(version);
+            return product;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.vlad.store.store_management.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+// Pre-encoded UTF-8 JSON of single products, keyed by id and valid for exactly one
+// version. Hot reads write these bytes straight to the response instead of copying
+// the entity and running Jackson again. Payloads of at least gzip-min-size bytes
+// also carry a gzip variant, compressed once when the entry is built.
+@Component
+public class ProductJsonCache {
+
+    private final Map<Long, Payload> byId = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private final ObjectWriter productWriter;
+    private final ObjectWriter viewWriter;
+    private final int maxSize;
+    private final int gzipMinSize;
+
+    public ProductJsonCache(ObjectMapper objectMapper,
+                            @Value("${products.json-cache.max-size:10000}") int maxSize,
+                            @Value("${products.json-cache.gzip-min-size:1024}") int gzipMinSize) {
+        this.productWriter = objectMapper.writerFor(Product.class);
+        this.viewWriter = objectMapper.writerFor(ProductView.class);
+        this.maxSize = maxSize;
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    // Bytes for this exact version, or null; a null id or version never matches
+    public Payload get(Long id, Integer version) {
+        Payload payload = id != null && version != null ? byId.get(id) : null;
+        if (payload == null || !version.equals(payload.version())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return payload;
+    }
+
+    // Reuses the cached bytes when the product is at the cached version, encodes (and caches) otherwise
+    public Payload encode(Product product) {
+        return encode(product.getId(), product.getVersion(), productWriter, product);
+    }
+
+    // Same bytes as for the entity: ProductView has the same JSON shape
+    public Payload encode(ProductView view) {
+        return encode(view.id(), view.version(), viewWriter, view);
+    }
+
+    // A JSON array spliced from the per-product payloads; only the framing bytes are new
+    public Payload encodeList(List<ProductView> products) {
+        Payload[] items = new Payload[products.size()];
+        int length = 2 + Math.max(0, items.length - 1);
+        for (int i = 0; i < items.length; i++) {
+            items[i] = encode(products.get(i));
+            length += items[i].json().length;
+        }
+        byte[] json = new byte[length];
+        int offset = 0;
+        json[offset++] = '[';
+        for (int i = 0; i < items.length; i++) {
+            if (i > 0) {
+                json[offset++] = ',';
+            }
+            byte[] item = items[i].json();
+            System.arraycopy(item, 0, json, offset, item.length);
+            offset += item.length;
+        }
+        json[offset] = ']';
+        return new Payload(null, json, null);
+    }
+
+    // Gzip for a payload built per request (lists); cached payloads already carry theirs
+    public byte[] gzip(Payload payload) {
+        return payload.gzip() != null ? payload.gzip() : gzipIfLarge(payload.json());
+    }
+
+    public void invalidate(Long id) {
+        byId.remove(id);
+    }
+
+    public void clear() {
+        byId.clear();
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.id());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private Payload encode(Long id, Integer version, ObjectWriter writer, Object value) {
+        Payload cached = get(id, version);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Payload payload = new Payload(version, json, gzipIfLarge(json));
+        // Unversioned products (not yet flushed) cannot be validated later, so they are not kept
+        if (maxSize > 0 && id != null && version != null) {
+            byId.merge(id, payload, ProductJsonCache::newer);
+            evictIfFull();
+        }
+        return payload;
+    }
+
+    private byte[] gzipIfLarge(byte[] json) {
+        if (json.length < gzipMinSize) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // A reader that loaded an older row must not replace bytes already cached for a newer version
+    private static Payload newer(Payload current, Payload candidate) {
+        return candidate.version() >= current.version() ? candidate : current;
+    }
+
+    // Drops arbitrary entries; a miss only costs one re-encode
+    private void evictIfFull() {
+        Iterator<Long> it = byId.keySet().iterator();
+        while (byId.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public record Payload(Integer version, byte[] json, byte[] gzip) {
+    }
+}
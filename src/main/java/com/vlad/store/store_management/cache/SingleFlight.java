@@ -0,0 +1,90 @@
+package com.vlad.store.store_management.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Request coalescing: concurrent load() calls for the same key share one call of the
+// loader and its result (or its exception). The first caller runs the loader on its own
+// thread, the others wait for it. Nothing is kept once the call returns, so this is not
+// a cache: a load() after the call finished starts a new one.
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public V load(K key, Supplier<V> loader) {
+        requests.increment();
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            return await(running);
+        }
+        loads.increment();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        // Removed before completing: a caller arriving from now on starts a fresh load
+        inFlight.remove(key, call);
+        call.complete(value);
+        return value;
+    }
+
+    // Later callers start a new load instead of joining the running one (the ones already
+    // waiting still get its result); for keys whose data just changed
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long loads() {
+        return loads.sum();
+    }
+
+    // Callers served by another caller's load
+    public long shared() {
+        return requests.sum() - loads.sum();
+    }
+
+    // Requests per loader call: 1.0 when nothing was coalesced
+    public double collapseRatio() {
+        long loadCount = loads.sum();
+        return loadCount == 0 ? 1.0 : (double) requests.sum() / loadCount;
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Same exception the first caller got
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
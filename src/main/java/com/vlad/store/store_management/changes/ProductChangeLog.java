@@ -0,0 +1,94 @@
+package com.vlad.store.store_management.changes;
+
+import com.vlad.store.store_management.dto.ChangeSet;
+import com.vlad.store.store_management.dto.ProductChange;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Sequence-numbered log of the most recent product changes, kept in a ring buffer.
+// Sequences start at boot time in microseconds, so they keep increasing across restarts;
+// a client whose position is older than the retained window is told to resync.
+// Sequences follow the order in which the change events arrive, which is not always commit
+// order: two updates of one product can be logged newest first, so a client must only apply
+// an UPSERT whose version is newer than the one it holds.
+@Component
+public class ProductChangeLog {
+
+    private final ProductChange[] ring;
+    private final long firstSequence;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Sequence of the newest entry; firstSequence - 1 while the log is empty
+    private long lastSequence;
+
+    @Autowired
+    public ProductChangeLog(@Value("${products.changes.retention:100000}") int retention,
+                            ApplicationEventPublisher eventPublisher) {
+        this(retention, System.currentTimeMillis() * 1000, eventPublisher);
+    }
+
+    ProductChangeLog(int retention, long firstSequence, ApplicationEventPublisher eventPublisher) {
+        this.ring = new ProductChange[Math.max(1, retention)];
+        this.firstSequence = firstSequence;
+        this.lastSequence = firstSequence - 1;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductChange change;
+        lock.writeLock().lock();
+        try {
+            long sequence = ++lastSequence;
+            change = new ProductChange(sequence, event.type(), event.id(), event.name(), event.price(),
+                    event.version());
+            ring[slot(sequence)] = change;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        eventPublisher.publishEvent(change);
+    }
+
+    public ChangeSet changesSince(long since, int limit) {
+        lock.readLock().lock();
+        try {
+            if (since < oldestRetained() - 1 || since > lastSequence) {
+                return new ChangeSet(List.of(), lastSequence, true, false);
+            }
+            long to = Math.min(lastSequence, since + Math.max(1, limit));
+            List<ProductChange> changes = new ArrayList<>((int) (to - since));
+            for (long sequence = since + 1; sequence <= to; sequence++) {
+                changes.add(ring[slot(sequence)]);
+            }
+            return new ChangeSet(changes, to, false, to < lastSequence);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long lastSequence() {
+        lock.readLock().lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long oldestRetained() {
+        return Math.max(firstSequence, lastSequence - ring.length + 1);
+    }
+
+    private int slot(long sequence) {
+        return Math.floorMod(sequence, ring.length);
+    }
+}
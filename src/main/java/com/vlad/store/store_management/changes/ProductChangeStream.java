@@ -0,0 +1,117 @@
+package com.vlad.store.store_management.changes;
+
+import com.vlad.store.store_management.dto.ChangeSet;
+import com.vlad.store.store_management.dto.ProductChange;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Server-Sent Events for the change log. All sends happen on one thread, in sequence
+// order, so a mutation never waits on a slow client and a subscriber that first
+// receives its backlog never sees a change twice or out of order.
+@Component
+public class ProductChangeStream {
+
+    private static final int BACKLOG_PAGE = 1000;
+
+    private final ProductChangeLog changeLog;
+    private final long timeoutMillis;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("product-change-sse").daemon().factory());
+
+    public ProductChangeStream(ProductChangeLog changeLog,
+                               @Value("${products.changes.sse-timeout:PT30M}") Duration timeout) {
+        this.changeLog = changeLog;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        sender.execute(() -> sendBacklog(subscriber, since));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onChange(ProductChange change) {
+        if (!subscribers.isEmpty()) {
+            sender.execute(() -> subscribers.forEach(subscriber -> send(subscriber, change)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void sendBacklog(Subscriber subscriber, long since) {
+        ChangeSet page = changeLog.changesSince(since, BACKLOG_PAGE);
+        if (page.reset()) {
+            trySend(subscriber, SseEmitter.event().name("reset").id(Long.toString(page.lastSequence()))
+                    .data(page.lastSequence()));
+            subscriber.lastSent = page.lastSequence();
+            return;
+        }
+        subscriber.lastSent = since;
+        while (true) {
+            for (ProductChange change : page.changes()) {
+                send(subscriber, change);
+            }
+            if (!page.hasMore()) {
+                return;
+            }
+            page = changeLog.changesSince(page.lastSequence(), BACKLOG_PAGE);
+        }
+    }
+
+    private void send(Subscriber subscriber, ProductChange change) {
+        // Already covered by the backlog, or the backlog has not been sent yet
+        if (subscriber.lastSent < 0 || change.sequence() <= subscriber.lastSent) {
+            return;
+        }
+        if (trySend(subscriber, SseEmitter.event().name("change").id(Long.toString(change.sequence()))
+                .data(change))) {
+            subscriber.lastSent = change.sequence();
+        }
+    }
+
+    private boolean trySend(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    // Only touched on the sender thread
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        long lastSent = -1;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.vlad.store.store_management.config;
+
+import com.vlad.store.store_management.cache.ProductJsonCache;
+import com.vlad.store.store_management.dto.ProductQuery;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.exception.ProductNotFoundException;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.OrderLineRepository;
+import com.vlad.store.store_management.repository.ProductRepository;
+import com.vlad.store.store_management.repository.UserRepository;
+import com.vlad.store.store_management.security.JwtTokenProvider;
+import com.vlad.store.store_management.service.ProductService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Application runners finish before the readiness state turns to ACCEPTING_TRAFFIC, so
+// /actuator/health/readiness stays down until this is done. It loads the most ordered
+// products into the product and JSON caches, then runs every read query and the JWT
+// round trip for a few hundred rounds: Hibernate's query plans, H2's per-connection
+// statement cache and the JIT-compiled request paths are then in place for real traffic.
+// The rounds are spread over one thread per pooled connection, each holding its own
+// connection throughout, so every connection in the pool gets its statements parsed.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+    private static final int PAGE_SIZE = 50;
+
+    private final ProductRepository productRepository;
+    private final OrderLineRepository orderLineRepository;
+    private final UserRepository userRepository;
+    private final ProductService productService;
+    private final ProductJsonCache productJsonCache;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+    private final int connections;
+    private final int hotProducts;
+    private final int rounds;
+    private final Duration maxDuration;
+
+    public StartupWarmup(ProductRepository productRepository,
+                         OrderLineRepository orderLineRepository,
+                         UserRepository userRepository,
+                         ProductService productService,
+                         ProductJsonCache productJsonCache,
+                         JwtTokenProvider jwtTokenProvider,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connections,
+                         @Value("${warmup.hot-products:1000}") int hotProducts,
+                         @Value("${warmup.rounds:300}") int rounds,
+                         @Value("${warmup.max-duration:PT30S}") Duration maxDuration) {
+        this.productRepository = productRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.userRepository = userRepository;
+        this.productService = productService;
+        this.productJsonCache = productJsonCache;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.connections = Math.max(1, connections);
+        this.hotProducts = hotProducts;
+        this.rounds = rounds;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        List<Product> hot = preloadHotProducts(deadline);
+        int completed = primeReadPaths(hot, deadline);
+
+        log.info("Warmup: {} hot products cached, {} query rounds in {} ms{}", hot.size(), completed,
+                Duration.ofNanos(System.nanoTime() - start).toMillis(),
+                completed < rounds ? " (stopped at warmup.max-duration)" : "");
+    }
+
+    // Most ordered products first, topped up with the lowest ids when there are few orders
+    private List<Product> preloadHotProducts(long deadline) {
+        Set<Long> ids = new LinkedHashSet<>(orderLineRepository.findMostOrderedProductIds(PageRequest.of(0, hotProducts)));
+        if (ids.size() < hotProducts) {
+            for (ProductView view : productRepository.findViewsAfter(Long.MIN_VALUE, PageRequest.of(0, hotProducts))) {
+                if (ids.size() >= hotProducts) {
+                    break;
+                }
+                ids.add(view.id());
+            }
+        }
+        List<Product> hot = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+            try {
+                Product product = productService.getProductById(id);
+                productJsonCache.encode(product);
+                hot.add(product);
+            } catch (ProductNotFoundException e) {
+                // Ordered once, deleted since
+            }
+        }
+        return hot;
+    }
+
+    // One worker per pooled connection, all started together; they share the rounds
+    private int primeReadPaths(List<Product> hot, long deadline) {
+        if (hot.isEmpty()) {
+            return 0;
+        }
+        int workers = Math.min(connections, rounds);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>(workers);
+            for (int worker = 0; worker < workers; worker++) {
+                int first = worker;
+                results.add(executor.submit(() -> primeConnection(hot, first, workers, deadline)));
+            }
+            int completed = 0;
+            for (Future<Integer> result : results) {
+                completed += result.get();
+            }
+            return completed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Warmup interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException("Warmup failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // The transaction pins one connection to this worker for all of its rounds. Straight to
+    // the repositories, and the persistence context is cleared after every round, so each
+    // round reaches the database rather than a cache.
+    private int primeConnection(List<Product> hot, int first, int step, long deadline) {
+        Integer completed = readOnlyTx.execute(status -> {
+            int count = 0;
+            for (int round = first; round < rounds && System.nanoTime() - deadline < 0; round += step) {
+                primeRound(hot.get(round % hot.size()));
+                entityManager.clear();
+                count++;
+            }
+            // Nothing to commit; a rollback also ends cleanly when a duplicate-name lookup
+            // has marked the transaction rollback-only
+            status.setRollbackOnly();
+            return count;
+        });
+        return completed != null ? completed : 0;
+    }
+
+    private void primeRound(Product product) {
+        String name = product.getName() != null ? product.getName() : "";
+        String prefix = name.substring(0, Math.min(3, name.length()));
+
+        productRepository.findById(product.getId());
+        try {
+            productRepository.findByName(name);
+        } catch (IncorrectResultSizeDataAccessException e) {
+            // Duplicate names: the statement has run, which is all the warmup needs
+        }
+        productRepository.findViewsAfter(product.getId(), PageRequest.of(0, PAGE_SIZE + 1));
+        productRepository.findProductsByCustomCriteria(prefix, 0);
+        productRepository.findByQuery(ProductQuery.of(null, null, null, null, "id", "asc", 0, PAGE_SIZE),
+                0, PAGE_SIZE + 1);
+        productRepository.findByQuery(ProductQuery.of(prefix, null, 0.0, null, "price", "asc", 0, PAGE_SIZE),
+                0, PAGE_SIZE + 1);
+        userRepository.findByUsername("warmup");
+        jwtTokenProvider.parseVerified(jwtTokenProvider.generateToken("warmup", List.of("ROLE_USER")));
+    }
+}
@@ -0,0 +1,154 @@
+package com.vlad.store.store_management.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Startup report for the request execution mode. In virtual-thread mode it lists
+// code that can pin carrier threads (synchronized methods in our beans and in the
+// JDBC driver's connection) and watches jdk.VirtualThreadPinned events at runtime.
+@Component
+public class VirtualThreadDiagnostics {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadDiagnostics.class);
+    private static final String BASE_PACKAGE = "com.vlad.store.store_management";
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final ApplicationContext context;
+    private final DataSource dataSource;
+    private final boolean virtualThreads;
+    private final boolean monitorPinning;
+    private final Duration pinningThreshold;
+    private final AtomicLong pinnedEvents = new AtomicLong();
+
+    private RecordingStream pinningStream;
+
+    public VirtualThreadDiagnostics(ApplicationContext context,
+                                    DataSource dataSource,
+                                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                    @Value("${diagnostics.pinning.monitor:true}") boolean monitorPinning,
+                                    @Value("${diagnostics.pinning.threshold:20ms}") Duration pinningThreshold) {
+        this.context = context;
+        this.dataSource = dataSource;
+        this.virtualThreads = virtualThreads;
+        this.monitorPinning = monitorPinning;
+        this.pinningThreshold = pinningThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        log.info("Request execution mode: {} threads", virtualThreads ? "virtual" : "platform");
+        if (!virtualThreads) {
+            return;
+        }
+        reportJdbcDriver();
+        reportSynchronizedBeans();
+        if (monitorPinning) {
+            startPinningMonitor();
+        }
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pinningStream != null) {
+            pinningStream.close();
+        }
+    }
+
+    private void reportJdbcDriver() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Class<?> connectionClass = connection.unwrap(Connection.class).getClass();
+            List<String> synchronizedMethods = synchronizedMethods(connectionClass);
+            log.info("JDBC driver: {} {}", metaData.getDriverName(), metaData.getDriverVersion());
+            if (!synchronizedMethods.isEmpty()) {
+                log.warn("{} has {} synchronized methods; a virtual thread blocked in them pins its carrier: {}",
+                        connectionClass.getName(), synchronizedMethods.size(), synchronizedMethods);
+            }
+        } catch (SQLException e) {
+            log.warn("Could not inspect the JDBC driver: {}", e.getMessage());
+        }
+    }
+
+    private void reportSynchronizedBeans() {
+        for (String beanName : context.getBeanDefinitionNames()) {
+            Class<?> type = context.getType(beanName);
+            if (type == null) {
+                continue;
+            }
+            Class<?> userClass = ClassUtils.getUserClass(type);
+            if (!userClass.getName().startsWith(BASE_PACKAGE)) {
+                continue;
+            }
+            List<String> synchronizedMethods = synchronizedMethods(userClass);
+            if (!synchronizedMethods.isEmpty()) {
+                log.warn("Bean {} has synchronized methods that pin virtual threads: {}",
+                        userClass.getSimpleName(), synchronizedMethods);
+            }
+        }
+    }
+
+    // synchronized blocks are invisible to reflection; those show up in the JFR monitor
+    private void startPinningMonitor() {
+        pinningStream = new RecordingStream();
+        pinningStream.enable(PINNED_EVENT)
+                .withThreshold(pinningThreshold)
+                .withStackTrace();
+        pinningStream.onEvent(PINNED_EVENT, event -> {
+            pinnedEvents.incrementAndGet();
+            log.warn("Virtual thread pinned for {} ms at {}",
+                    event.getDuration().toMillis(), topFrames(event.getStackTrace()));
+        });
+        pinningStream.startAsync();
+        log.info("Watching {} events longer than {}", PINNED_EVENT, pinningThreshold);
+    }
+
+    private static List<String> synchronizedMethods(Class<?> type) {
+        return Arrays.stream(type.getDeclaredMethods())
+                .filter(method -> Modifier.isSynchronized(method.getModifiers()))
+                .map(Method::getName)
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<no stack trace>";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(8)
+                .map(VirtualThreadDiagnostics::frame)
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,32 @@
+package com.vlad.store.store_management.controller;
+
+import com.vlad.store.store_management.audit.AuditLog;
+import com.vlad.store.store_management.audit.AuditRecord;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final AuditLog auditLog;
+
+    public AuditController(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    // Audit records from sequence "from" on, oldest first
+    @GetMapping
+    public ResponseEntity<List<AuditRecord>> getAuditRecords(
+            @RequestParam(defaultValue = "1") long from,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLog.read(from, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.vlad.store.store_management.controller;
+
+import com.vlad.store.store_management.dto.ReservationRequest;
+import com.vlad.store.store_management.dto.StockLevel;
+import com.vlad.store.store_management.dto.StockReservation;
+import com.vlad.store.store_management.dto.StockUpdate;
+import com.vlad.store.store_management.exception.InsufficientStockException;
+import com.vlad.store.store_management.exception.ProductNotFoundException;
+import com.vlad.store.store_management.exception.ReservationNotFoundException;
+import com.vlad.store.store_management.service.InventoryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    public InventoryController(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    // Current stock of a product
+    @GetMapping("/{productId}")
+    public ResponseEntity<StockLevel> getStock(@PathVariable Long productId) {
+        return ResponseEntity.ok(inventoryService.getStock(productId));
+    }
+
+    // Set the units on hand (restock or correction)
+    @PutMapping("/{productId}")
+    public ResponseEntity<StockLevel> setStock(@PathVariable Long productId, @RequestBody StockUpdate update) {
+        if (update.onHand() == null) {
+            throw new IllegalArgumentException("onHand is required");
+        }
+        return ResponseEntity.ok(inventoryService.setStock(productId, update.onHand()));
+    }
+
+    // Hold units for a checkout; they stay held until commit, release or expiry
+    @PostMapping("/reservations")
+    public ResponseEntity<StockReservation> reserve(@RequestBody ReservationRequest request,
+                                                    Authentication authentication) {
+        if (request.productId() == null || request.quantity() == null) {
+            throw new IllegalArgumentException("productId and quantity are required");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(inventoryService.reserve(authentication.getName(), request.productId(), request.quantity()));
+    }
+
+    // Checkout completed: the reserved units are sold (only by whoever reserved them)
+    @PostMapping("/reservations/{id}/commit")
+    public ResponseEntity<Void> commit(@PathVariable String id, Authentication authentication) {
+        inventoryService.commit(authentication.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Checkout abandoned: the reserved units become available again (only by whoever reserved them)
+    @DeleteMapping("/reservations/{id}")
+    public ResponseEntity<Void> release(@PathVariable String id, Authentication authentication) {
+        inventoryService.release(authentication.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler({ProductNotFoundException.class, ReservationNotFoundException.class})
+    public ResponseEntity<String> handleNotFound(RuntimeException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<String> handleInsufficientStock(InsufficientStockException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
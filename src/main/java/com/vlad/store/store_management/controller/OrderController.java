@@ -0,0 +1,59 @@
+package com.vlad.store.store_management.controller;
+
+import com.vlad.store.store_management.dto.OrderDetails;
+import com.vlad.store.store_management.dto.OrderReceipt;
+import com.vlad.store.store_management.dto.OrderRequest;
+import com.vlad.store.store_management.exception.OrderNotFoundException;
+import com.vlad.store.store_management.exception.OrderQueueFullException;
+import com.vlad.store.store_management.service.OrderIngestionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+
+    private final OrderIngestionService orderIngestionService;
+
+    public OrderController(OrderIngestionService orderIngestionService) {
+        this.orderIngestionService = orderIngestionService;
+    }
+
+    // Queue an order; it is validated and persisted asynchronously
+    @PostMapping
+    public ResponseEntity<OrderReceipt> submitOrder(@RequestBody OrderRequest request, Authentication authentication) {
+        OrderReceipt receipt = orderIngestionService.submit(
+                authentication != null ? authentication.getName() : null, request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/" + receipt.orderId()))
+                .body(receipt);
+    }
+
+    // QUEUED until a worker has processed it, then ACCEPTED or REJECTED (FAILED if it could not be stored)
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderDetails> getOrder(@PathVariable String id) {
+        return ResponseEntity.ok(orderIngestionService.getOrder(id));
+    }
+
+    @ExceptionHandler(OrderQueueFullException.class)
+    public ResponseEntity<String> handleQueueFull(OrderQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(OrderNotFoundException.class)
+    public ResponseEntity<String> handleOrderNotFound(OrderNotFoundException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
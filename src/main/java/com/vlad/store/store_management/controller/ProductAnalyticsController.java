@@ -0,0 +1,47 @@
+package com.vlad.store.store_management.controller;
+
+import com.vlad.store.store_management.dto.PriceHistogram;
+import com.vlad.store.store_management.dto.PriceStats;
+import com.vlad.store.store_management.service.ProductAnalyticsService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/products/analytics")
+public class ProductAnalyticsController {
+
+    private final ProductAnalyticsService analyticsService;
+
+    public ProductAnalyticsController(ProductAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    // Count / min / max / avg price, optionally for a name prefix and a price range
+    @GetMapping("/price-stats")
+    public ResponseEntity<PriceStats> priceStats(
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice) {
+        return ResponseEntity.ok(analyticsService.priceStats(namePrefix, minPrice, maxPrice));
+    }
+
+    // Number of products per price bucket between min and max
+    @GetMapping("/price-histogram")
+    public ResponseEntity<PriceHistogram> priceHistogram(
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam double min,
+            @RequestParam double max,
+            @RequestParam(defaultValue = "20") int buckets) {
+        return ResponseEntity.ok(analyticsService.priceHistogram(namePrefix, min, max, buckets));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,45 @@
+package com.vlad.store.store_management.controller;
+
+import com.vlad.store.store_management.changes.ProductChangeLog;
+import com.vlad.store.store_management.changes.ProductChangeStream;
+import com.vlad.store.store_management.dto.ChangeSet;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/products/changes")
+public class ProductChangesController {
+
+    static final int MAX_LIMIT = 10_000;
+
+    private final ProductChangeLog changeLog;
+    private final ProductChangeStream changeStream;
+
+    public ProductChangesController(ProductChangeLog changeLog, ProductChangeStream changeStream) {
+        this.changeLog = changeLog;
+        this.changeStream = changeStream;
+    }
+
+    // Changes after sequence "since" (upserts and tombstones), oldest first
+    @GetMapping
+    public ResponseEntity<ChangeSet> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(changeLog.changesSince(since, Math.min(limit, MAX_LIMIT)));
+    }
+
+    // Same feed pushed live as Server-Sent Events; Last-Event-ID resumes after a reconnect
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null ? lastEventId : since != null ? since : changeLog.lastSequence();
+        return changeStream.subscribe(from);
+    }
+}
@@ -1,38 +1,159 @@
 package com.vlad.store.store_management.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.cache.OffHeapProductStore;
+import com.vlad.store.store_management.cache.ProductJsonCache;
+import com.vlad.store.store_management.dto.CacheStats;
+import com.vlad.store.store_management.dto.ImportReport;
+import com.vlad.store.store_management.dto.PriceChange;
+import com.vlad.store.store_management.dto.PriceChangeResult;
+import com.vlad.store.store_management.dto.ProductPage;
+import com.vlad.store.store_management.dto.ProductQuery;
+import com.vlad.store.store_management.dto.ProductQueryResult;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.exception.InvalidCursorException;
+import com.vlad.store.store_management.exception.InvalidProductQueryException;
+import com.vlad.store.store_management.exception.ProductVersionMismatchException;
 import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.service.BatchPriceUpdateService;
+import com.vlad.store.store_management.service.ProductImportService;
 import com.vlad.store.store_management.service.ProductService;
 import com.vlad.store.store_management.exception.ProductNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final Pattern Q_ZERO = Pattern.compile("q=0(\\.0{0,3})?");
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final BatchPriceUpdateService batchPriceUpdateService;
+    private final ObjectMapper objectMapper;
+    private final ProductJsonCache productJsonCache;
+    private final OffHeapProductStore offHeapStore;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             BatchPriceUpdateService batchPriceUpdateService,
+                             ObjectMapper objectMapper,
+                             ProductJsonCache productJsonCache,
+                             OffHeapProductStore offHeapStore) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.batchPriceUpdateService = batchPriceUpdateService;
+        this.objectMapper = objectMapper;
+        this.productJsonCache = productJsonCache;
+        this.offHeapStore = offHeapStore;
     }
 
     // Get all products
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductView>> getAllProducts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Version read before the data: a concurrent change can only make the ETag older, never newer
+        String eTag = ProductETags.catalog(productService.getCatalogVersion());
+        if (ProductETags.matchesAny(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        List<ProductView> products = productService.getAllProducts();
+        return ResponseEntity.ok().eTag(eTag).body(products);
+    }
+
+    // Get one keyset page of products (cursor = nextCursor of the previous page)
+    @GetMapping("/page")
+    public ResponseEntity<ProductPage> getProductPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = ProductETags.catalog(productService.getCatalogVersion());
+        if (ProductETags.matchesAny(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productService.getProductPage(cursor, size));
+    }
+
+    // Any combination of name/price filters, sorted by id, name or price, one offset page at a time
+    @GetMapping("/query")
+    public ResponseEntity<ProductQueryResult> queryProducts(
+            @RequestParam(required = false) String nameContains,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        ProductQuery query = ProductQuery.of(nameContains, namePrefix, minPrice, maxPrice, sort, direction, page, size);
+        return ResponseEntity.ok(productService.queryProducts(query));
+    }
+
+    // Stream all products as NDJSON, one product per line
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+                productService.streamAllProducts(product -> {
+                    try {
+                        generator.writeObject(product);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
     }
 
     // Get product by id
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Product product = productService.getProductById(id);
-        if (product == null) {
-            throw new ProductNotFoundException("Product with id " + id + " not found.");
+    public ResponseEntity<byte[]> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Answered from the in-memory version before any cache, repository or JSON work
+        Integer currentVersion = productService.getCurrentVersion(id);
+        if (ifNoneMatch != null) {
+            String current = ProductETags.of(currentVersion);
+            if (ProductETags.matchesAny(ifNoneMatch, current)) {
+                return notModified(current);
+            }
+        }
+        // Bytes already encoded for the current version skip the entity lookup as well
+        ProductJsonCache.Payload payload = productJsonCache.get(id, currentVersion);
+        if (payload == null) {
+            // Off-heap store: JSON written from the stored slot, no Product in between
+            payload = offHeapStore.json(id, currentVersion);
+        }
+        if (payload == null) {
+            Product product = productService.getProductById(id);
+            if (product == null) {
+                throw new ProductNotFoundException("Product with id " + id + " not found.");
+            }
+            payload = productJsonCache.encode(product);
         }
-        return ResponseEntity.ok(product);
+        return json(payload, acceptEncoding);
     }
 
     // Create new product
@@ -42,14 +163,28 @@ public class ProductController {
         return ResponseEntity.ok(created);
     }
 
-    // Update existing product
+    // Bulk import from a JSON array or NDJSON body, committed in chunks
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<ImportReport> importProducts(
+            HttpServletRequest request,
+            @RequestParam(required = false) Integer chunkSize) throws IOException {
+        ImportReport report = productImportService.importProducts(request.getInputStream(), chunkSize);
+        return ResponseEntity.ok(report);
+    }
+
+    // Update existing product; If-Match makes the update conditional on the product version
     @PutMapping("/{id}")
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product product) {
-        Product updated = productService.updateProduct(id, product);
+    public ResponseEntity<Product> updateProduct(@PathVariable Long id,
+                                                 @RequestBody Product product,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Integer expectedVersion = ProductETags.expectedVersion(ifMatch);
+        Product updated = expectedVersion == null
+                ? productService.updateProduct(id, product)
+                : productService.updateProduct(id, product, expectedVersion);
         if (updated == null) {
             throw new ProductNotFoundException("Product with id " + id + " not found.");
         }
-        return ResponseEntity.ok(updated);
+        return withETag(updated);
     }
 
     // Delete product by id
@@ -64,32 +199,107 @@ public class ProductController {
     }
 
     @PatchMapping("/{id}/price")
-    public ResponseEntity<Product> updatePrice(@PathVariable Long id, @RequestParam Double price) {
+    public ResponseEntity<Product> updatePrice(@PathVariable Long id,
+                                               @RequestParam Double price,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Integer expectedVersion = ProductETags.expectedVersion(ifMatch);
         try {
-            Product updatedProduct = productService.updateProductPrice(id, price);
-            return ResponseEntity.ok(updatedProduct);
+            Product updatedProduct = expectedVersion == null
+                    ? productService.updateProductPrice(id, price)
+                    : productService.updateProductPrice(id, price, expectedVersion);
+            return withETag(updatedProduct);
+        } catch (ProductVersionMismatchException | OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             throw new ProductNotFoundException("Product with id " + id + " not found.");
         }
     }
 
+    // Batch of versioned price changes; each item reports UPDATED, CONFLICT, NOT_FOUND or INVALID
+    @PatchMapping("/prices")
+    public ResponseEntity<List<PriceChangeResult>> updatePrices(@RequestBody List<PriceChange> changes) {
+        return ResponseEntity.ok(batchPriceUpdateService.updatePrices(changes));
+    }
+
     @GetMapping("/by-name/{name}")
-    public ResponseEntity<Product> getProductByName(@PathVariable String name) {
+    public ResponseEntity<byte[]> getProductByName(
+            @PathVariable String name,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         return productService.getProductByName(name)
-                .map(ResponseEntity::ok)
+                .map(product -> json(productJsonCache.encode(product), acceptEncoding))
                 .orElseThrow(() -> new ProductNotFoundException("Product with name " + name + " not found."));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(
+    public ResponseEntity<byte[]> searchProducts(
             @RequestParam String namePart,
-            @RequestParam double minPrice) {
+            @RequestParam double minPrice,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        List<Product> products = productService.getProductsByCustomCriteria(namePart, minPrice);
+        List<ProductView> products = productService.getProductsByCustomCriteria(namePart, minPrice);
         if (products.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(products);
+        return json(productJsonCache.encodeList(products), acceptEncoding);
+    }
+
+    // Hit/miss/eviction counters of the product near-cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    // Pre-encoded bytes go out through the byte[] converter, never through Jackson
+    private ResponseEntity<byte[]> json(ProductJsonCache.Payload payload, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String eTag = ProductETags.of(payload.version());
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        if (acceptsGzip(acceptEncoding)) {
+            byte[] gzip = productJsonCache.gzip(payload);
+            if (gzip != null) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+            }
+        }
+        return builder.body(payload.json());
+    }
+
+    // "gzip" or "*" listed without q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                refused |= Q_ZERO.matcher(parts[i].trim()).matches();
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<Product> withETag(Product product) {
+        String eTag = ProductETags.of(product.getVersion());
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        return builder.body(product);
     }
 
     // Handle ProductNotFoundException locally
@@ -98,6 +308,27 @@ public class ProductController {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ProductVersionMismatchException.class)
+    public ResponseEntity<String> handleVersionMismatchException(ProductVersionMismatchException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Another request changed the product between our read and our write
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return new ResponseEntity<>("Product was modified concurrently, reload it and retry.", HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidProductQueryException.class)
+    public ResponseEntity<String> handleInvalidProductQueryException(InvalidProductQueryException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     // Handle any other exceptions locally
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGenericException(Exception ex) {
@@ -0,0 +1,52 @@
+package com.vlad.store.store_management.controller;
+
+import com.vlad.store.store_management.exception.ProductVersionMismatchException;
+
+// Strong ETags for products are the quoted entity version, e.g. "3"; collection
+// responses use the catalog version (change log sequence), e.g. "c1735725600000123"
+final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    static String of(Integer version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    static String catalog(long catalogVersion) {
+        return "\"c" + catalogVersion + "\"";
+    }
+
+    // If-None-Match: "*" or a list of tags; weak tags (W/"...") match too (weak comparison, RFC 9110)
+    static boolean matchesAny(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Parses an If-Match header into the expected version; null for a missing header or "*"
+    static Integer expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new ProductVersionMismatchException("If-Match must be a single strong ETag, got: " + ifMatch);
+        }
+        try {
+            return Integer.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new ProductVersionMismatchException("Unknown ETag in If-Match: " + ifMatch);
+        }
+    }
+}
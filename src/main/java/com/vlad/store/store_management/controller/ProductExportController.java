@@ -0,0 +1,58 @@
+package com.vlad.store.store_management.controller;
+
+import com.vlad.store.store_management.service.ProductExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/products/export")
+public class ProductExportController {
+
+    private final ProductExportService exportService;
+
+    public ProductExportController(ProductExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // Whole catalog as CSV or NDJSON, gzipped when the client accepts it. Written on the
+    // request thread straight into the servlet response, so no async timeout can cut a
+    // long export short.
+    @GetMapping
+    public void exportProducts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        ProductExportService.Format exportFormat = ProductExportService.Format.parse(format);
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("products." + exportFormat.extension()).build().toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!ProductController.acceptsGzip(acceptEncoding)) {
+            exportService.export(exportFormat, response.getOutputStream());
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        // Sync flush: the first rows reach the client without waiting for a full deflate block
+        try (OutputStream gzip = new GZIPOutputStream(response.getOutputStream(), 8192, true)) {
+            exportService.export(exportFormat, gzip);
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
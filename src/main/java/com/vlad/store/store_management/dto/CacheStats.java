@@ -0,0 +1,9 @@
+package com.vlad.store.store_management.dto;
+
+public record CacheStats(long hits, long misses, long evictions, long size, double hitRatio) {
+
+    public static CacheStats of(long hits, long misses, long evictions, long size) {
+        long requests = hits + misses;
+        return new CacheStats(hits, misses, evictions, size, requests == 0 ? 0.0 : (double) hits / requests);
+    }
+}
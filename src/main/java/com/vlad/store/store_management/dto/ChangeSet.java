@@ -0,0 +1,8 @@
+package com.vlad.store.store_management.dto;
+
+import java.util.List;
+
+// lastSequence is the "since" for the next call. reset=true means the requested position is
+// no longer retained (or from before a restart): resync the full catalog, then continue from lastSequence.
+public record ChangeSet(List<ProductChange> changes, long lastSequence, boolean reset, boolean hasMore) {
+}
@@ -0,0 +1,9 @@
+package com.vlad.store.store_management.dto;
+
+import java.util.List;
+
+public record ImportReport(long imported, long failed, int chunks, List<ChunkFailure> failures) {
+
+    public record ChunkFailure(int chunk, long firstItem, int size, String error) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.vlad.store.store_management.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record OrderDetails(String id, String status, Double total, String reason, Instant createdAt,
+                           List<OrderRequest.Line> lines) {
+}
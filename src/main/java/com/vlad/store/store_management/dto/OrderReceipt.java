@@ -0,0 +1,5 @@
+package com.vlad.store.store_management.dto;
+
+// status is QUEUED until a worker has validated and persisted the order
+public record OrderReceipt(String orderId, String status) {
+}
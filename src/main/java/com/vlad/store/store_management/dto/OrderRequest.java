@@ -0,0 +1,10 @@
+package com.vlad.store.store_management.dto;
+
+import java.util.List;
+
+// unitPrice is the price the client saw; the order is rejected if it no longer matches
+public record OrderRequest(List<Line> lines) {
+
+    public record Line(Long productId, Integer quantity, Double unitPrice) {
+    }
+}
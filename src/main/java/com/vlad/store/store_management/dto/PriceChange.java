@@ -0,0 +1,4 @@
+package com.vlad.store.store_management.dto;
+
+public record PriceChange(Long id, Double price, Integer expectedVersion) {
+}
@@ -0,0 +1,11 @@
+package com.vlad.store.store_management.dto;
+
+public record PriceChangeResult(Long id, Status status, Integer version) {
+
+    public enum Status {
+        UPDATED,
+        CONFLICT,
+        NOT_FOUND,
+        INVALID
+    }
+}
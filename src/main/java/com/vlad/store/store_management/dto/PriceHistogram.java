@@ -0,0 +1,13 @@
+package com.vlad.store.store_management.dto;
+
+// counts[i] covers [min + i * bucketWidth, min + (i + 1) * bucketWidth); the last bucket also holds max
+public record PriceHistogram(double min, double max, double bucketWidth, long[] counts) {
+
+    public long total() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,11 @@
+package com.vlad.store.store_management.dto;
+
+// min, max and avg are null when no priced product matched
+public record PriceStats(long count, Double min, Double max, Double avg) {
+
+    public static PriceStats of(long count, double sum, double min, double max) {
+        return count == 0
+                ? new PriceStats(0, null, null, null)
+                : new PriceStats(count, min, max, sum / count);
+    }
+}
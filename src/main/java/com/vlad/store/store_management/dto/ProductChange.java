@@ -0,0 +1,9 @@
+package com.vlad.store.store_management.dto;
+
+import com.vlad.store.store_management.event.ProductChangedEvent;
+
+// One entry of the change feed; DELETE entries are tombstones (only the id is set).
+// Clients skip an UPSERT whose version is not newer than the one they already hold.
+public record ProductChange(long sequence, ProductChangedEvent.Type type, Long id, String name, Double price,
+                            Integer version) {
+}
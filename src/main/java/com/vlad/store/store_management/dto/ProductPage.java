@@ -0,0 +1,30 @@
+package com.vlad.store.store_management.dto;
+
+
+import java.util.List;
+
+public class ProductPage {
+    private List<ProductView> items;
+    private String nextCursor;
+
+    public ProductPage() {}
+
+    public ProductPage(List<ProductView> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // getters & setters
+    public List<ProductView> getItems() {
+        return items;
+    }
+    public void setItems(List<ProductView> items) {
+        this.items = items;
+    }
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
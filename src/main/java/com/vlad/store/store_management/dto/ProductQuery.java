@@ -0,0 +1,96 @@
+package com.vlad.store.store_management.dto;
+
+import com.vlad.store.store_management.exception.InvalidProductQueryException;
+
+import java.util.Locale;
+
+// Filters, sort and page of GET /api/products/query. Null filters are absent. The
+// shape (which filters are present, sort key and direction) is all a compiled query
+// depends on; the filter values are bound as parameters.
+public record ProductQuery(String nameContains,
+                           String namePrefix,
+                           Double minPrice,
+                           Double maxPrice,
+                           SortKey sort,
+                           boolean descending,
+                           int page,
+                           int size) {
+
+    public static final int NAME_CONTAINS = 1;
+    public static final int NAME_PREFIX = 1 << 1;
+    public static final int MIN_PRICE = 1 << 2;
+    public static final int MAX_PRICE = 1 << 3;
+
+    public enum SortKey {
+        ID("id"),
+        NAME("name"),
+        PRICE("price");
+
+        private final String attribute;
+
+        SortKey(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String attribute() {
+            return attribute;
+        }
+    }
+
+    public record Shape(int filters, SortKey sort, boolean descending) {
+
+        public boolean has(int filter) {
+            return (filters & filter) != 0;
+        }
+    }
+
+    // Request parameters as received; blank names count as absent
+    public static ProductQuery of(String nameContains, String namePrefix, Double minPrice, Double maxPrice,
+                                  String sort, String direction, int page, int size) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new InvalidProductQueryException("minPrice " + minPrice + " is above maxPrice " + maxPrice);
+        }
+        if (page < 0) {
+            throw new InvalidProductQueryException("page must not be negative: " + page);
+        }
+        return new ProductQuery(blankToNull(nameContains), blankToNull(namePrefix), minPrice, maxPrice,
+                sortKey(sort), descending(direction), page, size);
+    }
+
+    public Shape shape() {
+        int filters = 0;
+        if (nameContains != null) {
+            filters |= NAME_CONTAINS;
+        }
+        if (namePrefix != null) {
+            filters |= NAME_PREFIX;
+        }
+        if (minPrice != null) {
+            filters |= MIN_PRICE;
+        }
+        if (maxPrice != null) {
+            filters |= MAX_PRICE;
+        }
+        return new Shape(filters, sort, descending);
+    }
+
+    private static SortKey sortKey(String sort) {
+        try {
+            return SortKey.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidProductQueryException("Unknown sort key: " + sort + " (id, name or price)");
+        }
+    }
+
+    private static boolean descending(String direction) {
+        return switch (direction.trim().toLowerCase(Locale.ROOT)) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new InvalidProductQueryException("Unknown direction: " + direction + " (asc or desc)");
+        };
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
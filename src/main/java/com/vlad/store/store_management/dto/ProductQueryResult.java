@@ -0,0 +1,7 @@
+package com.vlad.store.store_management.dto;
+
+import java.util.List;
+
+// One page of GET /api/products/query; hasMore tells whether page + 1 has rows
+public record ProductQueryResult(List<ProductView> items, int page, int size, boolean hasMore) {
+}
@@ -0,0 +1,13 @@
+package com.vlad.store.store_management.dto;
+
+import com.vlad.store.store_management.model.Product;
+
+// Read-only product as returned by the list, page and search endpoints. Filled by
+// JPQL constructor expressions, so no entity is hydrated or tracked for it; the JSON
+// shape is the same as the Product entity's.
+public record ProductView(Long id, String name, Double price, Integer version) {
+
+    public static ProductView of(Product product) {
+        return new ProductView(product.getId(), product.getName(), product.getPrice(), product.getVersion());
+    }
+}
@@ -0,0 +1,5 @@
+package com.vlad.store.store_management.dto;
+
+// onHand = units not yet sold, available = onHand minus open reservations
+public record StockLevel(Long productId, int onHand, int available) {
+}
@@ -0,0 +1,6 @@
+package com.vlad.store.store_management.dto;
+
+import java.time.Instant;
+
+public record StockReservation(String id, Long productId, int quantity, Instant expiresAt) {
+}
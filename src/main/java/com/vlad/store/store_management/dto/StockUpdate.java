@@ -0,0 +1,4 @@
+package com.vlad.store.store_management.dto;
+
+public record StockUpdate(Integer onHand) {
+}
@@ -0,0 +1,21 @@
+package com.vlad.store.store_management.event;
+
+import com.vlad.store.store_management.model.Product;
+
+// Published by ProductService after every committed product mutation
+public record ProductChangedEvent(Type type, Long id, String name, Double price, Integer version) {
+
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+
+    public static ProductChangedEvent upsert(Product product) {
+        return new ProductChangedEvent(Type.UPSERT, product.getId(), product.getName(), product.getPrice(),
+                product.getVersion());
+    }
+
+    public static ProductChangedEvent delete(Long id) {
+        return new ProductChangedEvent(Type.DELETE, id, null, null, null);
+    }
+}
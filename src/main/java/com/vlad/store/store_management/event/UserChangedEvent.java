@@ -0,0 +1,9 @@
+package com.vlad.store.store_management.event;
+
+// Published after writes to the users table; username null means any user may have changed
+public record UserChangedEvent(String username) {
+
+    public static UserChangedEvent all() {
+        return new UserChangedEvent(null);
+    }
+}
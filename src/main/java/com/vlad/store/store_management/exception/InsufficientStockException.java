@@ -0,0 +1,7 @@
+package com.vlad.store.store_management.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
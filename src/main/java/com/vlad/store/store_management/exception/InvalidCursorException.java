@@ -0,0 +1,7 @@
+package com.vlad.store.store_management.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.vlad.store.store_management.exception;
+
+public class InvalidProductQueryException extends RuntimeException {
+    public InvalidProductQueryException(String message) {
+        super(message);
+    }
+}
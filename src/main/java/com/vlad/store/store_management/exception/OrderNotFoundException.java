@@ -0,0 +1,7 @@
+package com.vlad.store.store_management.exception;
+
+public class OrderNotFoundException extends RuntimeException {
+    public OrderNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.vlad.store.store_management.exception;
+
+public class OrderQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OrderQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
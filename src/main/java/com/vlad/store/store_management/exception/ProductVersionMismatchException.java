@@ -0,0 +1,7 @@
+package com.vlad.store.store_management.exception;
+
+public class ProductVersionMismatchException extends RuntimeException {
+    public ProductVersionMismatchException(String message) {
+        super(message);
+    }
+}
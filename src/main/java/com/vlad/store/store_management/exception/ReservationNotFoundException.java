@@ -0,0 +1,7 @@
+package com.vlad.store.store_management.exception;
+
+public class ReservationNotFoundException extends RuntimeException {
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+}
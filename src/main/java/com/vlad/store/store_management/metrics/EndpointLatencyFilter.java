@@ -0,0 +1,70 @@
+package com.vlad.store.store_management.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Per-endpoint latency histogram. The timer is looked up by the handler Method, so after
+// the first request to an endpoint recording is a map get plus Timer.record: no tags
+// or strings are built per request.
+public class EndpointLatencyFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "store.http.latency";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    private final Timer unmapped;
+
+    public EndpointLatencyFilter(MeterRegistry registry) {
+        this.registry = registry;
+        // Requests rejected before MVC (401/403) or matching no endpoint
+        this.unmapped = timer("none", "none");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            timerFor(request).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timerFor(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return unmapped;
+        }
+        Method method = handlerMethod.getMethod();
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> timer(m.getDeclaringClass().getSimpleName(), m.getName()));
+        }
+        return timer;
+    }
+
+    private Timer timer(String controller, String endpoint) {
+        return Timer.builder(METRIC)
+                .description("Request latency per controller endpoint")
+                .tag("controller", controller)
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,146 @@
+package com.vlad.store.store_management.metrics;
+
+import com.vlad.store.store_management.analytics.ProductColumns;
+import com.vlad.store.store_management.audit.AuditLog;
+import com.vlad.store.store_management.cache.OffHeapProductStore;
+import com.vlad.store.store_management.cache.ProductCache;
+import com.vlad.store.store_management.cache.ProductJsonCache;
+import com.vlad.store.store_management.cache.SingleFlight;
+import com.vlad.store.store_management.changes.ProductChangeStream;
+import com.vlad.store.store_management.config.VirtualThreadDiagnostics;
+import com.vlad.store.store_management.search.ProductSearchIndex;
+import com.vlad.store.store_management.security.UserDetailsCache;
+import com.vlad.store.store_management.security.VerifiedTokenCache;
+import com.vlad.store.store_management.service.InventoryService;
+import com.vlad.store.store_management.service.OrderIngestionService;
+import com.vlad.store.store_management.service.ProductService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+@Configuration
+public class MetricsConfig {
+
+    // Runs ahead of the security chain so the latency includes JWT verification
+    @Bean
+    public FilterRegistrationBean<EndpointLatencyFilter> endpointLatencyFilter(MeterRegistry registry) {
+        FilterRegistrationBean<EndpointLatencyFilter> registration =
+                new FilterRegistrationBean<>(new EndpointLatencyFilter(registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    // Same hook Spring Boot uses for its repository metrics, without building tags per call
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        SingletonSupplier<MeterRegistry> lazyRegistry = SingletonSupplier.of(registry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    new RepositoryTimingInterceptor(lazyRegistry, information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Read only when the registry is scraped, never on the request path
+    @Bean
+    public MeterBinder storeMetrics(ProductCache productCache,
+                                    ProductService productService,
+                                    ProductJsonCache productJsonCache,
+                                    OffHeapProductStore offHeapStore,
+                                    ProductSearchIndex searchIndex,
+                                    ProductColumns productColumns,
+                                    VerifiedTokenCache verifiedTokenCache,
+                                    UserDetailsCache userDetailsCache,
+                                    InventoryService inventoryService,
+                                    OrderIngestionService orderIngestionService,
+                                    AuditLog auditLog,
+                                    ProductChangeStream productChangeStream,
+                                    VirtualThreadDiagnostics virtualThreadDiagnostics) {
+        return registry -> {
+            FunctionCounter.builder("store.cache.product.requests", productCache, cache -> cache.stats().hits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("store.cache.product.requests", productCache, cache -> cache.stats().misses())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("store.cache.product.evictions", productCache, cache -> cache.stats().evictions())
+                    .register(registry);
+            Gauge.builder("store.cache.product.size", productCache, cache -> cache.stats().size())
+                    .register(registry);
+            Gauge.builder("store.cache.product.hit.ratio", productCache, cache -> cache.stats().hitRatio())
+                    .register(registry);
+            registerLookups(registry, "id", productService.getIdLookups());
+            registerLookups(registry, "name", productService.getNameLookups());
+            FunctionCounter.builder("store.cache.product.json.requests", productJsonCache, ProductJsonCache::hits)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("store.cache.product.json.requests", productJsonCache, ProductJsonCache::misses)
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("store.cache.product.json.size", productJsonCache, ProductJsonCache::size)
+                    .register(registry);
+            Gauge.builder("store.offheap.products", offHeapStore, OffHeapProductStore::size)
+                    .register(registry);
+            Gauge.builder("store.offheap.bytes", offHeapStore, OffHeapProductStore::offHeapBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("store.cache.jwt.size", verifiedTokenCache, VerifiedTokenCache::size)
+                    .register(registry);
+            Gauge.builder("store.cache.users.size", userDetailsCache, UserDetailsCache::size)
+                    .register(registry);
+            Gauge.builder("store.inventory.reservations.open", inventoryService, InventoryService::openReservations)
+                    .register(registry);
+            Gauge.builder("store.orders.queue.depth", orderIngestionService, OrderIngestionService::queueDepth)
+                    .register(registry);
+            FunctionCounter.builder("store.orders.processed", orderIngestionService,
+                            OrderIngestionService::processedOrders)
+                    .register(registry);
+            Gauge.builder("store.orders.failed", orderIngestionService, OrderIngestionService::failedOrders)
+                    .register(registry);
+            Gauge.builder("store.audit.backlog", auditLog, AuditLog::backlog)
+                    .register(registry);
+            Gauge.builder("store.changes.subscribers", productChangeStream, ProductChangeStream::subscriberCount)
+                    .register(registry);
+            Gauge.builder("store.search.index.size", searchIndex, ProductSearchIndex::size)
+                    .register(registry);
+            Gauge.builder("store.analytics.columns.size", productColumns, ProductColumns::size)
+                    .register(registry);
+            FunctionCounter.builder("store.threads.virtual.pinned", virtualThreadDiagnostics,
+                            VirtualThreadDiagnostics::getPinnedEvents)
+                    .register(registry);
+        };
+    }
+
+    // Cache-miss lookups that ran the query (load) or got another request's result (shared)
+    private static <K, V> void registerLookups(MeterRegistry registry, String lookup, SingleFlight<K, V> flight) {
+        FunctionCounter.builder("store.product.lookups", flight, SingleFlight::loads)
+                .tag("lookup", lookup)
+                .tag("result", "load")
+                .register(registry);
+        FunctionCounter.builder("store.product.lookups", flight, SingleFlight::shared)
+                .tag("lookup", lookup)
+                .tag("result", "shared")
+                .register(registry);
+        Gauge.builder("store.product.lookups.collapse.ratio", flight, SingleFlight::collapseRatio)
+                .tag("lookup", lookup)
+                .register(registry);
+        Gauge.builder("store.product.lookups.in.flight", flight, SingleFlight::inFlight)
+                .tag("lookup", lookup)
+                .register(registry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.vlad.store.store_management.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Times every repository call, tagged by repository and method. Timers are cached per
+// Method so the hot path does not build tags.
+class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    static final String METRIC = "store.repository.latency";
+
+    // Resolved lazily: repositories are created before the registry is fully configured
+    private final Supplier<MeterRegistry> registry;
+    private final String repository;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    RepositoryTimingInterceptor(Supplier<MeterRegistry> registry, Class<?> repositoryInterface) {
+        this.registry = registry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            timerFor(invocation.getMethod()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timerFor(Method method) {
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> Timer.builder(METRIC)
+                    .description("Repository call latency")
+                    .tag("repository", repository)
+                    .tag("method", m.getName())
+                    .publishPercentileHistogram()
+                    .register(registry.get()));
+        }
+        return timer;
+    }
+}
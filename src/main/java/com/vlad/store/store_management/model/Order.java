@@ -0,0 +1,82 @@
+package com.vlad.store.store_management.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+// Inserted in batches by OrderIngestionService through JDBC; JPA is only used to read it back
+@Entity
+@Table(name = "orders")
+public class Order {
+
+    // FAILED orders are never stored: OrderIngestionService reports them from memory
+    public enum Status { ACCEPTED, REJECTED, FAILED }
+
+    // Assigned at submission, so the client gets it before the order is persisted
+    @Id
+    private String id;
+
+    private String username;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private Double total;
+    private String reason;
+    private Instant createdAt;
+
+    public Order() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Double getTotal() {
+        return total;
+    }
+
+    public void setTotal(Double total) {
+        this.total = total;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
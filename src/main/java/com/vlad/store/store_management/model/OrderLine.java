@@ -0,0 +1,89 @@
+package com.vlad.store.store_management.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Entity
+@IdClass(OrderLine.Key.class)
+public class OrderLine {
+
+    @Id
+    private String orderId;
+
+    @Id
+    private int lineNo;
+
+    private Long productId;
+    private int quantity;
+    private Double unitPrice;
+
+    public OrderLine() {
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public int getLineNo() {
+        return lineNo;
+    }
+
+    public void setLineNo(int lineNo) {
+        this.lineNo = lineNo;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public Double getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(Double unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public static class Key implements Serializable {
+        private String orderId;
+        private int lineNo;
+
+        public Key() {
+        }
+
+        public Key(String orderId, int lineNo) {
+            this.orderId = orderId;
+            this.lineNo = lineNo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && lineNo == other.lineNo && Objects.equals(orderId, other.orderId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(orderId, lineNo);
+        }
+    }
+}
@@ -4,13 +4,23 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import org.springframework.data.annotation.Version;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
+// name: findByName and prefix queries; price: range filters and "price > :minPrice"
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_name", columnList = "name"),
+        @Index(name = "idx_product_price", columnList = "price")
+})
 public class Product {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -43,6 +53,10 @@ public class Product {
         return price;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -54,4 +68,8 @@ public class Product {
     public void setPrice(Double price) {
         this.price = price;
     }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,38 @@
+package com.vlad.store.store_management.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+// Units on hand per product. Written behind by InventoryService, never through JPA on the request path.
+@Entity
+public class Stock {
+
+    @Id
+    private Long productId;
+
+    private int onHand;
+
+    public Stock() {
+    }
+
+    public Stock(Long productId, int onHand) {
+        this.productId = productId;
+        this.onHand = onHand;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getOnHand() {
+        return onHand;
+    }
+
+    public void setOnHand(int onHand) {
+        this.onHand = onHand;
+    }
+}
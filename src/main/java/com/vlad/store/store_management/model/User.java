@@ -3,14 +3,15 @@ package com.vlad.store.store_management.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "users")
+// Login looks users up by username; the named unique constraint is that index
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_username", columnNames = "username"))
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
@@ -0,0 +1,16 @@
+package com.vlad.store.store_management.repository;
+
+import com.vlad.store.store_management.model.OrderLine;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface OrderLineRepository extends JpaRepository<OrderLine, OrderLine.Key> {
+    List<OrderLine> findByOrderIdOrderByLineNo(String orderId);
+
+    // Products by units ordered, most ordered first
+    @Query("SELECT l.productId FROM OrderLine l GROUP BY l.productId ORDER BY SUM(l.quantity) DESC")
+    List<Long> findMostOrderedProductIds(Pageable pageable);
+}
@@ -0,0 +1,7 @@
+package com.vlad.store.store_management.repository;
+
+import com.vlad.store.store_management.model.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OrderRepository extends JpaRepository<Order, String> {
+}
@@ -0,0 +1,78 @@
+package com.vlad.store.store_management.repository;
+
+import com.vlad.store.store_management.dto.ProductQuery;
+import jakarta.persistence.TypedQuery;
+
+// Renders the shape of a ProductQuery as JPQL with positional parameters, numbered in the
+// order of the filters below. Filter values never end up in the query text, so every
+// ProductQuery of the same shape yields the same string, and Hibernate parses and
+// translates it once (see ProductRepositoryCustomImpl.findByQuery).
+public final class ProductQueryCompiler {
+
+    private static final char LIKE_ESCAPE = '\\';
+    private static final String NAME_ESCAPE = " ESCAPE '" + LIKE_ESCAPE + "'";
+
+    private ProductQueryCompiler() {
+    }
+
+    public static String compile(ProductQuery.Shape shape) {
+        StringBuilder jpql = new StringBuilder(256)
+                .append("SELECT new com.vlad.store.store_management.dto.ProductView(p.id, p.name, p.price, p.version)")
+                .append(" FROM Product p");
+        int parameter = 0;
+        String keyword = " WHERE ";
+        if (shape.has(ProductQuery.NAME_CONTAINS)) {
+            jpql.append(keyword).append("p.name LIKE ?").append(++parameter).append(NAME_ESCAPE);
+            keyword = " AND ";
+        }
+        if (shape.has(ProductQuery.NAME_PREFIX)) {
+            jpql.append(keyword).append("p.name LIKE ?").append(++parameter).append(NAME_ESCAPE);
+            keyword = " AND ";
+        }
+        if (shape.has(ProductQuery.MIN_PRICE)) {
+            jpql.append(keyword).append("p.price >= ?").append(++parameter);
+            keyword = " AND ";
+        }
+        if (shape.has(ProductQuery.MAX_PRICE)) {
+            jpql.append(keyword).append("p.price <= ?").append(++parameter);
+        }
+
+        // The id tie-breaker keeps offset pages stable when sort values repeat
+        jpql.append(" ORDER BY p.").append(shape.sort().attribute()).append(shape.descending() ? " DESC" : " ASC");
+        if (shape.sort() != ProductQuery.SortKey.ID) {
+            jpql.append(", p.id ASC");
+        }
+        return jpql.toString();
+    }
+
+    // Binds the values in the same order compile numbers the parameters
+    public static <T> TypedQuery<T> bind(TypedQuery<T> query, ProductQuery spec) {
+        int parameter = 0;
+        if (spec.nameContains() != null) {
+            query.setParameter(++parameter, "%" + escapeLike(spec.nameContains()) + "%");
+        }
+        if (spec.namePrefix() != null) {
+            query.setParameter(++parameter, escapeLike(spec.namePrefix()) + "%");
+        }
+        if (spec.minPrice() != null) {
+            query.setParameter(++parameter, spec.minPrice());
+        }
+        if (spec.maxPrice() != null) {
+            query.setParameter(++parameter, spec.maxPrice());
+        }
+        return query;
+    }
+
+    // User text is matched literally: '%' and '_' are not wildcards here
+    static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -1,11 +1,34 @@
 package com.vlad.store.store_management.repository;
 
+import com.vlad.store.store_management.dto.ProductView;
 import com.vlad.store.store_management.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     Optional<Product> findByName(String name);
+
+    // Projections for the read endpoints: no entity instances, snapshots or flushes
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("SELECT new com.vlad.store.store_management.dto.ProductView(p.id, p.name, p.price, p.version) "
+            + "FROM Product p ORDER BY p.id")
+    List<ProductView> findAllViews();
+
+    // Keyset pagination: only the rows after the cursor, never an OFFSET scan
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("SELECT new com.vlad.store.store_management.dto.ProductView(p.id, p.name, p.price, p.version) "
+            + "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductView> findViewsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -1,8 +1,17 @@
 package com.vlad.store.store_management.repository;
 
+import com.vlad.store.store_management.dto.ProductQuery;
+import com.vlad.store.store_management.dto.ProductView;
 import com.vlad.store.store_management.model.Product;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductRepositoryCustom {
-    List<Product> findProductsByCustomCriteria(String namePart, double minPrice);
+    List<ProductView> findProductsByCustomCriteria(String namePart, double minPrice);
+
+    List<ProductView> findByQuery(ProductQuery query, int offset, int limit);
+
+    void streamAll(int fetchSize, Consumer<Product> consumer);
+
+    void insertBatch(List<Product> products);
 }
@@ -1,12 +1,22 @@
 package com.vlad.store.store_management.repository;
 
+import com.vlad.store.store_management.dto.ProductQuery;
+import com.vlad.store.store_management.dto.ProductView;
 import com.vlad.store.store_management.model.Product;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
@@ -14,12 +24,72 @@ public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final Map<ProductQuery.Shape, String> queryPlans = new ConcurrentHashMap<>();
+
+    // Constructor expression: rows go straight into records, the persistence context stays empty
     @Override
-    public List<Product> findProductsByCustomCriteria(String namePart, double minPrice) {
-        String jpql = "SELECT p FROM Product p WHERE p.name LIKE :name AND p.price > :minPrice";
-        TypedQuery<Product> query = entityManager.createQuery(jpql, Product.class);
+    @Transactional(readOnly = true)
+    public List<ProductView> findProductsByCustomCriteria(String namePart, double minPrice) {
+        String jpql = "SELECT new com.vlad.store.store_management.dto.ProductView(p.id, p.name, p.price, p.version) "
+                + "FROM Product p WHERE p.name LIKE :name AND p.price > :minPrice";
+        TypedQuery<ProductView> query = entityManager.createQuery(jpql, ProductView.class);
+        query.setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
         query.setParameter("name", "%" + namePart + "%");
         query.setParameter("minPrice", minPrice);
         return query.getResultList();
     }
+
+    // Runs the plan compiled for the query's shape; only the values are bound per call
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductView> findByQuery(ProductQuery spec, int offset, int limit) {
+        TypedQuery<ProductView> query = entityManager.createQuery(planFor(spec.shape()), ProductView.class);
+        ProductQueryCompiler.bind(query, spec);
+        query.setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    // Rendered once per shape. Hibernate caches the parsed and translated form of a JPQL
+    // string, so the same string per shape means every later call skips both steps; a
+    // criteria or named criteria query would be translated again on each execution.
+    // There are at most 16 filter combinations x 3 sort keys x 2 directions, so no bound.
+    private String planFor(ProductQuery.Shape shape) {
+        return queryPlans.computeIfAbsent(shape, ProductQueryCompiler::compile);
+    }
+
+    public int queryPlanCount() {
+        return queryPlans.size();
+    }
+
+    // Must run inside a transaction; each entity is detached once consumed so the
+    // persistence context never holds more than the current row
+    @Override
+    public void streamAll(int fetchSize, Consumer<Product> consumer) {
+        TypedQuery<Product> query = entityManager.createQuery("SELECT p FROM Product p ORDER BY p.id", Product.class);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        try (Stream<Product> products = query.getResultStream()) {
+            Iterator<Product> it = products.iterator();
+            while (it.hasNext()) {
+                Product product = it.next();
+                consumer.accept(product);
+                entityManager.detach(product);
+            }
+        }
+        entityManager.clear();
+    }
+
+    // Must run inside a transaction; relies on hibernate.jdbc.batch_size and the
+    // pooled id sequence so the inserts go out as JDBC batches
+    @Override
+    public void insertBatch(List<Product> products) {
+        for (Product product : products) {
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
 }
@@ -0,0 +1,289 @@
+package com.vlad.store.store_management.search;
+
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram index over Product.name, answering the same question as
+// "name LIKE '%part%' AND price > :minPrice" without a full table scan.
+@Component
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int REBUILD_FETCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductView> products = new HashMap<>();
+    private final Map<Long, PostingList> trigrams = new HashMap<>();
+    private final NavigableMap<Double, PostingList> prices = new TreeMap<>();
+    // Ids are never reused, so an upsert arriving after the delete is a late one
+    private final Set<Long> deleted = new HashSet<>();
+
+    // Until the first rebuild completes, callers fall back to the database
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            clear();
+            readOnlyTx.executeWithoutResult(status ->
+                    productRepository.streamAll(REBUILD_FETCH_SIZE, this::index));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Iterable<Product> source) {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            clear();
+            for (Product product : source) {
+                index(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.type() == ProductChangedEvent.Type.DELETE) {
+                deleted.add(event.id());
+                unindex(event.id());
+            } else if (!isStale(event)) {
+                index(event.id(), event.name(), event.price(), event.version());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Events from concurrent writers can arrive out of order; an older one must not replace
+    // the entry that currentVersion() reports (ETag / 304). Unversioned data is always applied.
+    private boolean isStale(ProductChangedEvent event) {
+        if (deleted.contains(event.id())) {
+            return true;
+        }
+        ProductView indexed = products.get(event.id());
+        return indexed != null && indexed.version() != null && event.version() != null
+                && event.version() <= indexed.version();
+    }
+
+    // Returns null when the index cannot answer (not built yet, or LIKE wildcards
+    // in the pattern); the caller should then use the JPQL query instead.
+    // The views are the index's own immutable entries, handed out without copying.
+    public List<ProductView> search(String namePart, double minPrice) {
+        if (!ready || namePart == null || hasLikeWildcards(namePart)) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<ProductView> result = namePart.length() < GRAM
+                    ? scanByPrice(namePart, minPrice)
+                    : searchByTrigrams(namePart, minPrice);
+            result.sort(Comparator.comparing(ProductView::id));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Current version of an indexed product; null if the index is not built or does not hold it
+    public Integer currentVersion(Long id) {
+        if (!ready || id == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            ProductView product = products.get(id);
+            return product != null ? product.version() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<ProductView> searchByTrigrams(String namePart, double minPrice) {
+        long[] keys = trigramKeys(namePart);
+        PostingList[] lists = new PostingList[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = trigrams.get(keys[i]);
+            if (lists[i] == null) {
+                return new ArrayList<>();
+            }
+        }
+        // Walk the shortest posting list and probe the others
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+
+        List<ProductView> result = new ArrayList<>();
+        PostingList smallest = lists[0];
+        for (int i = 0; i < smallest.size(); i++) {
+            long id = smallest.get(i);
+            if (!containsInAll(lists, id)) {
+                continue;
+            }
+            ProductView candidate = products.get(id);
+            // Trigram hits are only candidates: the substring itself must still match
+            if (candidate.price() != null && candidate.price() > minPrice
+                    && candidate.name().contains(namePart)) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    // Patterns shorter than a trigram have no postings; walk the price column instead
+    private List<ProductView> scanByPrice(String namePart, double minPrice) {
+        List<ProductView> result = new ArrayList<>();
+        for (PostingList ids : prices.tailMap(minPrice, false).values()) {
+            for (int i = 0; i < ids.size(); i++) {
+                ProductView candidate = products.get(ids.get(i));
+                if (candidate.name().contains(namePart)) {
+                    result.add(candidate);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean containsInAll(PostingList[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(Product product) {
+        index(product.getId(), product.getName(), product.getPrice(), product.getVersion());
+    }
+
+    private void index(Long id, String name, Double price, Integer version) {
+        if (id == null) {
+            return;
+        }
+        ProductView previous = products.get(id);
+        if (previous != null && previous.name().equals(name)) {
+            // Price-only change: the trigram postings stay as they are
+            removePrice(id, previous.price());
+            addPrice(id, price);
+            products.put(id, new ProductView(id, name, price, version));
+            return;
+        }
+        unindex(id);
+        // A NULL name never matches LIKE, so it has nothing to index
+        if (name == null) {
+            return;
+        }
+        products.put(id, new ProductView(id, name, price, version));
+        for (long key : trigramKeys(name)) {
+            trigrams.computeIfAbsent(key, k -> new PostingList()).add(id);
+        }
+        addPrice(id, price);
+    }
+
+    private void unindex(Long id) {
+        ProductView previous = products.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (long key : trigramKeys(previous.name())) {
+            PostingList ids = trigrams.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                trigrams.remove(key);
+            }
+        }
+        removePrice(id, previous.price());
+    }
+
+    private void addPrice(long id, Double price) {
+        // NULL prices never satisfy "price > :minPrice"
+        if (price != null) {
+            prices.computeIfAbsent(price, p -> new PostingList()).add(id);
+        }
+    }
+
+    private void removePrice(long id, Double price) {
+        if (price == null) {
+            return;
+        }
+        PostingList ids = prices.get(price);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            prices.remove(price);
+        }
+    }
+
+    private void clear() {
+        deleted.clear();
+        products.clear();
+        trigrams.clear();
+        prices.clear();
+    }
+
+    // Distinct trigrams of the text, each packed as three 16-bit chars in a long
+    static long[] trigramKeys(String text) {
+        int count = text.length() - GRAM + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) text.charAt(i) << 32)
+                    | ((long) text.charAt(i + 1) << 16)
+                    | text.charAt(i + 2);
+        }
+        return Arrays.stream(keys).distinct().toArray();
+    }
+
+    // '%', '_' and the default escape '\' change LIKE semantics, so those go to JPQL
+    private static boolean hasLikeWildcards(String namePart) {
+        return namePart.indexOf('%') >= 0 || namePart.indexOf('_') >= 0 || namePart.indexOf('\\') >= 0;
+    }
+}
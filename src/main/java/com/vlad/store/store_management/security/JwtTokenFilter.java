@@ -1,5 +1,9 @@
 package com.vlad.store.store_management.security;
 
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,14 +18,32 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class JwtTokenFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache tokenCache;
 
-    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider) {
+    // Metrice înregistrate o singură dată; pe calea critică doar record/increment
+    private final Timer verifyTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider, VerifiedTokenCache tokenCache, MeterRegistry registry) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenCache = tokenCache;
+        this.verifyTimer = Timer.builder("store.jwt.verify")
+                .description("JWT parse and signature verification")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.cacheHits = Counter.builder("store.jwt.cache.requests")
+                .tag("result", "hit")
+                .register(registry);
+        this.cacheMisses = Counter.builder("store.jwt.cache.requests")
+                .tag("result", "miss")
+                .register(registry);
     }
 
     @Override
@@ -32,38 +54,53 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
 
-        String token = null;
-        String username = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-
-            if (jwtTokenProvider.validateToken(token)) {
-                username = jwtTokenProvider.getUsername(token);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            VerifiedToken verified = resolve(authHeader.substring(7));
+
+            if (verified != null && verified.subject() != null) {
+                // Rolurile vin direct din token
+                List<GrantedAuthority> authorities = verified.roles().stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toList());
+
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(
+                                verified.subject(),
+                                null,
+                                authorities);
+
+                authentication.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request));
+
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Authorities: " + authorities);
+                }
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Extrage rolurile direct din token
-            List<String> roles = jwtTokenProvider.getRoles(token);
-
-            List<GrantedAuthority> authorities = roles.stream()
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList());
-
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(
-                            username,
-                            null,
-                            authorities);
-
-            authentication.setDetails(
-                    new WebAuthenticationDetailsSource().buildDetails(request));
+        filterChain.doFilter(request, response);
+    }
 
-            System.out.println("Authorities: " + authorities);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+    // Un singur parse + verificare de semnătură per token; cererile următoare vin din cache
+    private VerifiedToken resolve(String token) {
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+        cacheMisses.increment();
+        long start = System.nanoTime();
+        try {
+            VerifiedToken verified = jwtTokenProvider.parseVerified(token);
+            tokenCache.put(token, verified);
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token invalid
+            return null;
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-
-        filterChain.doFilter(request, response);
     }
 }
@@ -1,18 +1,38 @@
 package com.vlad.store.store_management.security;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // Header-ul e mereu același, îl codificăm o singură dată
+    private static final String SIGNED_HEADER = BASE64_URL.encodeToString(
+            "{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII)) + ".";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -20,60 +40,118 @@ public class JwtTokenProvider {
     private long validityInMilliseconds; // ex: 3600000 = 1h
 
     private Key key;
+    private JwtParser parser;
+    private SecretKeySpec signingKey;
+
+    // Instanțe Mac deja inițializate cu cheia, refolosite între cereri. Un pool și nu un
+    // ThreadLocal: cu thread-uri virtuale fiecare cerere ar avea propriul thread.
+    private final Queue<Mac> macs = new ConcurrentLinkedQueue<>();
 
     @PostConstruct
     protected void init() {
         // Creează cheia secretă din secretKey (string) în format byte[]
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        // Parser-ul este thread-safe, îl construim o singură dată
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.signingKey = new SecretKeySpec(key.getEncoded(), HMAC_SHA256);
+        this.macs.clear();
     }
 
-    // Generează token JWT pentru un username și o listă de roluri
+    // Generează token JWT (HS256) pentru un username și o listă de roluri. Același rezultat ca
+    // Jwts.builder()...signWith(key, HS256).compact(), fără builder, Claims și Mac noi la fiecare apel
     public String generateToken(String username, List<String> roles) {
-        Claims claims = Jwts.claims().setSubject(username);
-        claims.put("roles", roles);  // Adaugă rolurile în token
-
-        Date now = new Date();
-        Date validity = new Date(now.getTime() + validityInMilliseconds);
-
-        return Jwts.builder()
-                .setClaims(claims)
-                .setIssuedAt(now)          // când a fost emis
-                .setExpiration(validity)   // când expiră
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+        long now = System.currentTimeMillis();
+        String signingInput = SIGNED_HEADER + BASE64_URL.encodeToString(
+                claims(username, roles, now / 1000, (now + validityInMilliseconds) / 1000));
+        return signingInput + "." + BASE64_URL.encodeToString(
+                sign(signingInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    // Verifică semnătura și expirarea o singură dată și întoarce toate claims-urile necesare
+    public VerifiedToken parseVerified(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                toRoles(claims.get("roles")),
+                expiration != null ? expiration.toInstant() : null);
     }
 
     // Extrage username-ul din token
     public String getUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseVerified(token).subject();
     }
 
     // Extrage lista de roluri din token (opțional, dacă ai nevoie)
     public List<String> getRoles(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("roles", List.class);
+        return parseVerified(token).roles();
     }
 
     // Verifică dacă token-ul este valid (semnătură, expirare)
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
+            parseVerified(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             // Token invalid
             return false;
         }
     }
+
+    // sub, roles, iat (când a fost emis), exp (când expiră); datele în secunde, ca în JJWT
+    private static byte[] claims(String username, List<String> roles, long issuedAt, long expiresAt) {
+        ByteArrayBuilder out = new ByteArrayBuilder(128);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            if (username != null) {
+                json.writeStringField(Claims.SUBJECT, username);
+            }
+            if (roles != null) {
+                json.writeArrayFieldStart("roles");
+                for (String role : roles) {
+                    json.writeString(role);
+                }
+                json.writeEndArray();
+            }
+            json.writeNumberField(Claims.ISSUED_AT, issuedAt);
+            json.writeNumberField(Claims.EXPIRATION, expiresAt);
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] sign(byte[] signingInput) {
+        Mac mac = macs.poll();
+        if (mac == null) {
+            mac = newMac();
+        }
+        try {
+            return mac.doFinal(signingInput);
+        } finally {
+            macs.offer(mac);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(signingKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static List<String> toRoles(Object rawRoles) {
+        if (!(rawRoles instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream()
+                .map(String::valueOf)
+                .toList();
+    }
 }
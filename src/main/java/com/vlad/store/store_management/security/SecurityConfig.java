@@ -1,12 +1,14 @@
 package com.vlad.store.store_management.security;
 
 import com.vlad.store.store_management.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
@@ -23,15 +25,25 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserDetailsCache userDetailsCache;
+    private final MeterRegistry meterRegistry;
 
-    public SecurityConfig(CustomUserDetailsService userDetailsService, JwtTokenProvider jwtTokenProvider) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService,
+                          JwtTokenProvider jwtTokenProvider,
+                          VerifiedTokenCache verifiedTokenCache,
+                          UserDetailsCache userDetailsCache,
+                          MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userDetailsCache = userDetailsCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
     public JwtTokenFilter jwtTokenFilter() {
-        return new JwtTokenFilter(jwtTokenProvider);
+        return new JwtTokenFilter(jwtTokenProvider, verifiedTokenCache, meterRegistry);
     }
 
     @Bean
@@ -54,6 +66,10 @@ public class SecurityConfig {
                         // H2 console permit all
                         .requestMatchers("/h2-console/**").permitAll()
 
+                        // Health public (probes), metrics admin only
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
+
                         // Login public
                         .requestMatchers("/api/auth/login").permitAll()
 
@@ -66,6 +82,17 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers(HttpMethod.PATCH, "/api/products/**").hasAuthority("ROLE_ADMIN")
 
+                        // Inventory: stock levels and reservations (user & admin), restock (admin only).
+                        // Commit/release of a reservation is further limited to its owner by InventoryService
+                        .requestMatchers(HttpMethod.PUT, "/api/inventory/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/inventory/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
+
+                        // Audit trail (admin only)
+                        .requestMatchers("/api/audit/**").hasAuthority("ROLE_ADMIN")
+
+                        // Orders (user & admin)
+                        .requestMatchers("/api/orders/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
+
                         // All other requests authenticated
                         .anyRequest().authenticated()
                 )
@@ -75,9 +102,18 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Provider explicit, ca să putem pune cache-ul de UserDetails în fața bazei de date
+    @Bean
+    public DaoAuthenticationProvider daoAuthenticationProvider() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserCache(userDetailsCache);
+        return provider;
+    }
+
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
-        return authConfig.getAuthenticationManager();
+    public AuthenticationManager authenticationManager() {
+        return new ProviderManager(daoAuthenticationProvider());
     }
 
     @Bean
@@ -0,0 +1,129 @@
+package com.vlad.store.store_management.security;
+
+import com.vlad.store.store_management.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cache în fața CustomUserDetailsService: login-urile repetate nu mai ajung la tabela users
+@Component
+public class UserDetailsCache implements UserCache {
+
+    private final Map<String, CachedUser> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public UserDetailsCache(@Value("${auth.user-cache.max-entries:10000}") int maxEntries,
+                            @Value("${auth.user-cache.ttl:PT10M}") Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    UserDetailsCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    // Întoarce mereu o copie: ProviderManager șterge parola din principal după autentificare,
+    // iar instanța din cache trebuie să rămână intactă
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        if (maxEntries <= 0 || username == null) {
+            return null;
+        }
+        CachedUser cached = entries.get(username);
+        if (cached == null) {
+            return null;
+        }
+        if (!cached.expiresAt().isAfter(clock.instant())) {
+            entries.remove(username, cached);
+            return null;
+        }
+        return cached.toUserDetails();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (maxEntries <= 0 || user.getPassword() == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(user.getUsername(), CachedUser.of(user, clock.instant().plus(ttl)));
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        entries.remove(username);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // Un username necunoscut (ex. după un update sau un restore) golește tot cache-ul
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.username() == null) {
+            clear();
+        } else {
+            removeUserFromCache(event.username());
+        }
+    }
+
+    private void makeRoom() {
+        Instant now = clock.instant();
+        entries.values().removeIf(cached -> !cached.expiresAt().isAfter(now));
+
+        // Dacă tot e plin, eliberăm ~10% din intrări ca să nu curățăm la fiecare put
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record CachedUser(String username,
+                              String password,
+                              List<GrantedAuthority> authorities,
+                              boolean enabled,
+                              boolean accountNonExpired,
+                              boolean credentialsNonExpired,
+                              boolean accountNonLocked,
+                              Instant expiresAt) {
+
+        static CachedUser of(UserDetails user, Instant expiresAt) {
+            Collection<? extends GrantedAuthority> authorities = user.getAuthorities();
+            return new CachedUser(user.getUsername(), user.getPassword(), List.copyOf(authorities),
+                    user.isEnabled(), user.isAccountNonExpired(), user.isCredentialsNonExpired(),
+                    user.isAccountNonLocked(), expiresAt);
+        }
+
+        UserDetails toUserDetails() {
+            return new User(username, password, enabled, accountNonExpired, credentialsNonExpired,
+                    accountNonLocked, authorities);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.vlad.store.store_management.security;
+
+import java.time.Instant;
+import java.util.List;
+
+// Claims extrase dintr-un token a cărui semnătură a fost deja verificată
+public record VerifiedToken(String subject, List<String> roles, Instant expiresAt) {
+
+    public VerifiedToken {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
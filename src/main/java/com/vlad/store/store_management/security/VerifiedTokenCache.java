@@ -0,0 +1,95 @@
+package com.vlad.store.store_management.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    // Cheia este digest-ul token-ului, nu token-ul în clar
+    private final Map<ByteBuffer, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Clock clock;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this(maxEntries, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    // Returnează claims-urile din cache sau null dacă token-ul lipsește ori a expirat
+    public VerifiedToken get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        ByteBuffer key = digest(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired(clock.instant())) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        // Token-urile fără expirare nu sunt păstrate, altfel ar rămâne valide pentru totdeauna
+        if (maxEntries <= 0 || verified.expiresAt() == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(digest(token), verified);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void makeRoom() {
+        Instant now = clock.instant();
+        entries.values().removeIf(verified -> verified.isExpired(now));
+
+        // Dacă tot e plin, eliberăm ~10% din intrări ca să nu curățăm la fiecare put
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<ByteBuffer> it = entries.keySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
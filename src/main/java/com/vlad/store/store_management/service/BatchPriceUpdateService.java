@@ -0,0 +1,123 @@
+package com.vlad.store.store_management.service;
+
+import com.vlad.store.store_management.audit.AuditAction;
+import com.vlad.store.store_management.audit.AuditLog;
+import com.vlad.store.store_management.dto.PriceChange;
+import com.vlad.store.store_management.dto.PriceChangeResult;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Applies many versioned price changes with one batched UPDATE per chunk instead
+// of a findById + save round trip per product.
+@Service
+public class BatchPriceUpdateService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String UPDATE_SQL =
+            "UPDATE product SET price = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditLog auditLog;
+
+    public BatchPriceUpdateService(JdbcTemplate jdbcTemplate,
+                                   ProductRepository productRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   AuditLog auditLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.auditLog = auditLog;
+    }
+
+    public List<PriceChangeResult> updatePrices(List<PriceChange> changes) {
+        List<PriceChangeResult> results = new ArrayList<>(changes.size());
+        for (int from = 0; from < changes.size(); from += CHUNK_SIZE) {
+            results.addAll(updateChunk(changes.subList(from, Math.min(from + CHUNK_SIZE, changes.size()))));
+        }
+        return results;
+    }
+
+    private List<PriceChangeResult> updateChunk(List<PriceChange> chunk) {
+        List<PriceChange> valid = chunk.stream()
+                .filter(BatchPriceUpdateService::isValid)
+                .toList();
+        if (valid.isEmpty()) {
+            return chunk.stream()
+                    .map(change -> new PriceChangeResult(change.id(), PriceChangeResult.Status.INVALID, null))
+                    .toList();
+        }
+
+        // The re-read runs in the UPDATE's transaction: versions for conflicts and rows for the
+        // change events are the ones this chunk committed, not a later writer's
+        Applied applied = transactionTemplate.execute(status -> {
+            int[][] updateCounts = jdbcTemplate.batchUpdate(UPDATE_SQL, valid, valid.size(), (ps, change) -> {
+                ps.setDouble(1, change.price());
+                ps.setLong(2, change.id());
+                ps.setInt(3, change.expectedVersion());
+            });
+            Map<Long, Product> rows = productRepository.findAllById(valid.stream().map(PriceChange::id).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            return new Applied(updateCounts, rows);
+        });
+        int[][] counts = applied.counts();
+        Map<Long, Product> current = applied.current();
+
+        List<PriceChangeResult> results = new ArrayList<>(chunk.size());
+        Set<Long> updated = new HashSet<>();
+        int next = 0;
+        for (PriceChange change : chunk) {
+            if (!isValid(change)) {
+                results.add(new PriceChangeResult(change.id(), PriceChangeResult.Status.INVALID, null));
+                continue;
+            }
+            int count = counts[0][next++];
+            Product product = current.get(change.id());
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                updated.add(change.id());
+                results.add(new PriceChangeResult(change.id(), PriceChangeResult.Status.UPDATED, change.expectedVersion() + 1));
+            } else if (product == null) {
+                results.add(new PriceChangeResult(change.id(), PriceChangeResult.Status.NOT_FOUND, null));
+            } else {
+                results.add(new PriceChangeResult(change.id(), PriceChangeResult.Status.CONFLICT, product.getVersion()));
+            }
+        }
+
+        for (Long id : updated) {
+            Product product = current.get(id);
+            if (product != null) {
+                auditLog.record(AuditAction.UPDATE_PRICE, product);
+                eventPublisher.publishEvent(ProductChangedEvent.upsert(product));
+            }
+        }
+        return results;
+    }
+
+    private static boolean isValid(PriceChange change) {
+        return change.id() != null && change.price() != null && change.expectedVersion() != null;
+    }
+
+    private record Applied(int[][] counts, Map<Long, Product> current) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.vlad.store.store_management.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// One reusable byte array between the result set and the response: values are encoded
+// into it directly (UTF-8, CSV quoting, JSON escaping) and it goes out in SIZE chunks,
+// so rows cost no String or byte[] of their own, except for prices: those go through
+// Double.toString (one short String each) so they read exactly as Jackson writes them.
+final class ExportBuffer {
+
+    static final int SIZE = 64 * 1024;
+
+    // A long: sign and 19 digits
+    private static final int MAX_TOKEN = 20;
+    private static final String HEX = "0123456789ABCDEF";
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[SIZE];
+    private final byte[] digits = new byte[MAX_TOKEN];
+    private int position;
+
+    ExportBuffer(OutputStream out) {
+        this.out = out;
+    }
+
+    // Only for ASCII text: field names, separators, Double.toString output
+    void ascii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            ascii(text.charAt(i));
+        }
+    }
+
+    void ascii(char c) throws IOException {
+        room(1);
+        buffer[position++] = (byte) c;
+    }
+
+    void number(long value) throws IOException {
+        room(MAX_TOKEN);
+        if (value < 0) {
+            buffer[position++] = '-';
+        }
+        // Digits from the negative value, so Long.MIN_VALUE needs no special case
+        long rest = value < 0 ? value : -value;
+        int at = digits.length;
+        do {
+            digits[--at] = (byte) ('0' - (rest % 10));
+            rest /= 10;
+        } while (rest != 0);
+        int length = digits.length - at;
+        System.arraycopy(digits, at, buffer, position, length);
+        position += length;
+    }
+
+    // RFC 4180: quoted only when it contains a separator, a quote or a line break
+    void csvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            utf8(value);
+            return;
+        }
+        ascii('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                ascii('"');
+            }
+            i = utf8(value, i);
+        }
+        ascii('"');
+    }
+
+    // Same escaping as Jackson's default: quote, backslash and control characters
+    void jsonString(String value) throws IOException {
+        if (value == null) {
+            ascii("null");
+            return;
+        }
+        ascii('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> ascii("\\\"");
+                case '\\' -> ascii("\\\\");
+                case '\b' -> ascii("\\b");
+                case '\t' -> ascii("\\t");
+                case '\n' -> ascii("\\n");
+                case '\f' -> ascii("\\f");
+                case '\r' -> ascii("\\r");
+                default -> {
+                    if (c < 0x20) {
+                        ascii("\\u00");
+                        ascii(HEX.charAt(c >> 4));
+                        ascii(HEX.charAt(c & 0xF));
+                    } else {
+                        i = utf8(value, i);
+                    }
+                }
+            }
+        }
+        ascii('"');
+    }
+
+    // Hands everything buffered so far to the stream and flushes it
+    void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void utf8(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            i = utf8(value, i);
+        }
+    }
+
+    // Encodes the character at index i (two chars for a surrogate pair) and returns the
+    // index of the last char consumed; a lone surrogate becomes '?' like String.getBytes
+    private int utf8(String value, int i) throws IOException {
+        room(4);
+        char c = value.charAt(i);
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                buffer[position++] = '?';
+            }
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    private void room(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
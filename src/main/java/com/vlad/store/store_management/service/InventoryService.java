@@ -0,0 +1,232 @@
+package com.vlad.store.store_management.service;
+
+import com.vlad.store.store_management.dto.StockLevel;
+import com.vlad.store.store_management.dto.StockReservation;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.exception.InsufficientStockException;
+import com.vlad.store.store_management.exception.ProductNotFoundException;
+import com.vlad.store.store_management.exception.ReservationNotFoundException;
+import com.vlad.store.store_management.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Reserve/commit/release against in-memory per-product counters. The database only sees
+// the resulting on-hand values, written behind in batches; on restart each counter is
+// reloaded from the stock table the first time its product is touched.
+//
+// Open reservations live only in memory. The persisted on-hand value still includes
+// them, so after a crash they are simply released and stock is never oversold.
+// Only the user who made a reservation can commit or release it.
+@Service
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    private static final String SELECT_SQL = "SELECT on_hand FROM stock WHERE product_id = ?";
+    private static final String UPSERT_SQL = "MERGE INTO stock (product_id, on_hand) KEY (product_id) VALUES (?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM stock WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final Duration reservationTtl;
+    private final Clock clock;
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Two overlapping flushes could write an older value after a newer one
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Autowired
+    public InventoryService(JdbcTemplate jdbcTemplate,
+                            ProductRepository productRepository,
+                            @Value("${inventory.reservation-ttl:PT10M}") Duration reservationTtl) {
+        this(jdbcTemplate, productRepository, reservationTtl, Clock.systemUTC());
+    }
+
+    InventoryService(JdbcTemplate jdbcTemplate, ProductRepository productRepository,
+                     Duration reservationTtl, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.reservationTtl = reservationTtl;
+        this.clock = clock;
+    }
+
+    public StockLevel getStock(Long productId) {
+        StockCounter counter = counter(productId);
+        return counter == null
+                ? new StockLevel(productId, 0, 0)
+                : new StockLevel(productId, counter.onHand(), counter.available());
+    }
+
+    public StockLevel setStock(Long productId, int onHand) {
+        if (!productRepository.existsById(productId)) {
+            throw new ProductNotFoundException("Product not found with id: " + productId);
+        }
+        if (onHand < 0) {
+            throw new IllegalArgumentException("Stock cannot be negative");
+        }
+        StockCounter counter = counters.computeIfAbsent(productId, id -> {
+            StockCounter loaded = load(id);
+            return loaded != null ? loaded : new StockCounter(0);
+        });
+        if (!counter.setOnHand(onHand)) {
+            throw new InsufficientStockException("Stock for product " + productId
+                    + " cannot go below the " + (counter.onHand() - counter.available()) + " units reserved");
+        }
+        dirty.add(productId);
+        return new StockLevel(productId, counter.onHand(), counter.available());
+    }
+
+    public StockReservation reserve(String username, Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        StockCounter counter = counter(productId);
+        if (counter == null || !counter.tryReserve(quantity)) {
+            throw new InsufficientStockException("Not enough stock for product " + productId);
+        }
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), username, productId, quantity,
+                clock.instant().plus(reservationTtl));
+        reservations.put(reservation.id(), reservation);
+        return reservation.toDto();
+    }
+
+    public void commit(String username, String reservationId) {
+        Reservation reservation = take(username, reservationId);
+        StockCounter counter = counter(reservation.productId());
+        if (counter != null) {
+            counter.commit(reservation.quantity());
+            dirty.add(reservation.productId());
+        }
+    }
+
+    public void release(String username, String reservationId) {
+        giveBack(take(username, reservationId));
+    }
+
+    public int openReservations() {
+        return reservations.size();
+    }
+
+    // Write-behind: one JDBC batch with the latest on-hand value of every changed product
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:200}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Object[]> rows = new ArrayList<>();
+            for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+                Long productId = it.next();
+                // Removed before reading, so a change racing with us marks it dirty again
+                it.remove();
+                StockCounter counter = counters.get(productId);
+                if (counter != null) {
+                    rows.add(new Object[]{productId, counter.onHand()});
+                }
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            } catch (DataAccessException e) {
+                rows.forEach(row -> dirty.add((Long) row[0]));
+                log.warn("Stock flush of {} products failed, will retry: {}", rows.size(), e.getMessage());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.expiry-sweep-ms:1000}")
+    public void releaseExpired() {
+        Instant now = clock.instant();
+        reservations.forEach((id, reservation) -> {
+            // remove(key, value) decides the race with a concurrent commit/release
+            if (reservation.isExpired(now) && reservations.remove(id, reservation)) {
+                giveBack(reservation);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.DELETE) {
+            counters.remove(event.id());
+            dirty.remove(event.id());
+            jdbcTemplate.update(DELETE_SQL, event.id());
+        }
+    }
+
+    // Someone else's reservation is reported as missing, so ids cannot be probed
+    private Reservation take(String username, String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservation.owner().equals(username)
+                || !reservations.remove(reservationId, reservation)) {
+            throw new ReservationNotFoundException("Reservation not found: " + reservationId);
+        }
+        if (reservation.isExpired(clock.instant())) {
+            giveBack(reservation);
+            throw new ReservationNotFoundException("Reservation expired: " + reservationId);
+        }
+        return reservation;
+    }
+
+    // The product may have been deleted since the reservation was made
+    private void giveBack(Reservation reservation) {
+        StockCounter counter = counter(reservation.productId());
+        if (counter != null) {
+            counter.release(reservation.quantity());
+        }
+    }
+
+    // Products without a stock row are not cached, so unknown ids cannot grow the map
+    private StockCounter counter(Long productId) {
+        StockCounter counter = counters.get(productId);
+        return counter != null ? counter : counters.computeIfAbsent(productId, this::load);
+    }
+
+    private StockCounter load(Long productId) {
+        List<Integer> onHand = jdbcTemplate.queryForList(SELECT_SQL, Integer.class, productId);
+        return onHand.isEmpty() ? null : new StockCounter(onHand.get(0));
+    }
+
+    private record Reservation(String id, String owner, Long productId, int quantity, Instant expiresAt) {
+
+        boolean isExpired(Instant now) {
+            return !expiresAt.isAfter(now);
+        }
+
+        StockReservation toDto() {
+            return new StockReservation(id, productId, quantity, expiresAt);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.vlad.store.store_management.service;
+
+import com.vlad.store.store_management.dto.OrderDetails;
+import com.vlad.store.store_management.dto.OrderReceipt;
+import com.vlad.store.store_management.dto.OrderRequest;
+import com.vlad.store.store_management.exception.OrderNotFoundException;
+import com.vlad.store.store_management.exception.OrderQueueFullException;
+import com.vlad.store.store_management.model.Order;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.OrderLineRepository;
+import com.vlad.store.store_management.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Orders are accepted into a bounded queue and persisted by worker threads in batches:
+// one findAllById for the prices of a whole batch, one JDBC batch per table, one commit.
+// A full queue is reported to the caller (429) instead of growing latency.
+@Service
+public class OrderIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestionService.class);
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (id, username, status, total, reason, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LINE_SQL =
+            "INSERT INTO order_line (order_id, line_no, product_id, quantity, unit_price) VALUES (?, ?, ?, ?, ?)";
+
+    static final int MAX_LINES = 100;
+
+    private final ProductService productService;
+    private final OrderRepository orderRepository;
+    private final OrderLineRepository orderLineRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingOrder> queue;
+    private final int batchSize;
+    private final int workerCount;
+    private final long retryAfterSeconds;
+    private final int maxFailed;
+    private final Clock clock;
+
+    // Submitted but not yet persisted, so GET can answer QUEUED
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    // Accepted with 202 but could not be written even on their own; id -> error, so GET
+    // answers FAILED instead of 404. In memory only: lost on restart like the queue itself.
+    // Holds the latest orders.failed.max-entries failures; older ones are forgotten first.
+    private final Map<String, String> failed = new ConcurrentHashMap<>();
+    private final Queue<String> failedOldestFirst = new ConcurrentLinkedQueue<>();
+    private final AtomicLong processed = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OrderIngestionService(ProductService productService,
+                                 OrderRepository orderRepository,
+                                 OrderLineRepository orderLineRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${orders.queue.capacity:10000}") int queueCapacity,
+                                 @Value("${orders.batch-size:50}") int batchSize,
+                                 @Value("${orders.workers:2}") int workerCount,
+                                 @Value("${orders.retry-after-seconds:1}") long retryAfterSeconds,
+                                 @Value("${orders.failed.max-entries:10000}") int maxFailed) {
+        this.productService = productService;
+        this.orderRepository = orderRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.workerCount = Math.max(1, workerCount);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.maxFailed = Math.max(1, maxFailed);
+        this.clock = Clock.systemUTC();
+    }
+
+    public OrderReceipt submit(String username, OrderRequest request) {
+        List<OrderRequest.Line> lines = request.lines();
+        if (lines == null || lines.isEmpty() || lines.size() > MAX_LINES) {
+            throw new IllegalArgumentException("An order needs between 1 and " + MAX_LINES + " lines");
+        }
+        for (OrderRequest.Line line : lines) {
+            if (line.productId() == null || line.unitPrice() == null
+                    || line.quantity() == null || line.quantity() <= 0) {
+                throw new IllegalArgumentException("Every line needs productId, a positive quantity and unitPrice");
+            }
+        }
+        PendingOrder order = new PendingOrder(UUID.randomUUID().toString(), username, List.copyOf(lines),
+                clock.instant());
+        queued.add(order.id());
+        if (!queue.offer(order)) {
+            queued.remove(order.id());
+            throw new OrderQueueFullException("Order queue is full, retry later", retryAfterSeconds);
+        }
+        return new OrderReceipt(order.id(), "QUEUED");
+    }
+
+    public OrderDetails getOrder(String id) {
+        // Read before the database: a worker commits an order and only then drops it from
+        // queued (or records it as failed), so an order queued here that the lookup below
+        // misses is still in flight, and one not queued here is stored, failed or unknown
+        boolean inFlight = queued.contains(id);
+        return orderRepository.findById(id)
+                .map(order -> new OrderDetails(order.getId(), order.getStatus().name(), order.getTotal(),
+                        order.getReason(), order.getCreatedAt(),
+                        orderLineRepository.findByOrderIdOrderByLineNo(id).stream()
+                                .map(line -> new OrderRequest.Line(line.getProductId(), line.getQuantity(),
+                                        line.getUnitPrice()))
+                                .toList()))
+                .orElseGet(() -> {
+                    String error = failed.get(id);
+                    if (error != null) {
+                        return new OrderDetails(id, Order.Status.FAILED.name(), null, error, null, List.of());
+                    }
+                    if (inFlight) {
+                        return new OrderDetails(id, "QUEUED", null, null, null, List.of());
+                    }
+                    throw new OrderNotFoundException("Order not found with id: " + id);
+                });
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public long processedOrders() {
+        return processed.get();
+    }
+
+    public int failedOrders() {
+        return failed.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofPlatform().name("order-worker-" + i).start(this::work));
+        }
+    }
+
+    // Stops the workers and persists whatever is still queued. Workers are not interrupted:
+    // an interrupt in the middle of a JDBC call can close the database file channel.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        workers.clear();
+        List<PendingOrder> rest = new ArrayList<>();
+        while (queue.drainTo(rest, batchSize) > 0) {
+            persistOrSplit(rest);
+            rest.clear();
+        }
+    }
+
+    private void work() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running.get()) {
+            try {
+                // Wait for the first order, then take whatever else is already waiting
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persistOrSplit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // The client already got 202, so a failed batch is not dropped: it is retried order by
+    // order, which also keeps one bad row (or a transient error) from taking the rest of the
+    // batch with it. An order that still cannot be written is reported as FAILED.
+    void persistOrSplit(List<PendingOrder> batch) {
+        try {
+            persist(batch);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Could not persist a batch of {} orders, retrying them one by one", batch.size(), e);
+        }
+        for (PendingOrder order : batch) {
+            try {
+                persist(List.of(order));
+            } catch (RuntimeException e) {
+                log.error("Could not persist order {}", order.id(), e);
+                // Recorded before it leaves queued, so GET never answers 404 in between
+                recordFailure(order.id(), "Could not be stored: " + e.getMessage());
+                queued.remove(order.id());
+            }
+        }
+    }
+
+    private void recordFailure(String id, String error) {
+        failed.put(id, error);
+        failedOldestFirst.add(id);
+        while (failed.size() > maxFailed) {
+            String oldest = failedOldestFirst.poll();
+            if (oldest == null) {
+                break;
+            }
+            failed.remove(oldest);
+        }
+    }
+
+    // Validates prices with one lookup for the whole batch and writes it in one transaction
+    List<ProcessedOrder> persist(List<PendingOrder> batch) {
+        Set<Long> productIds = new HashSet<>();
+        for (PendingOrder order : batch) {
+            for (OrderRequest.Line line : order.lines()) {
+                productIds.add(line.productId());
+            }
+        }
+        Map<Long, Product> products = productService.getProductsByIds(productIds);
+
+        List<ProcessedOrder> results = new ArrayList<>(batch.size());
+        List<Object[]> orderRows = new ArrayList<>(batch.size());
+        List<Object[]> lineRows = new ArrayList<>();
+        for (PendingOrder order : batch) {
+            ProcessedOrder result = validate(order, products);
+            results.add(result);
+            orderRows.add(new Object[]{order.id(), order.username(), result.status().name(), result.total(),
+                    result.reason(), Timestamp.from(order.createdAt())});
+            for (int i = 0; i < order.lines().size(); i++) {
+                OrderRequest.Line line = order.lines().get(i);
+                lineRows.add(new Object[]{order.id(), i + 1, line.productId(), line.quantity(), line.unitPrice()});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orderRows);
+            jdbcTemplate.batchUpdate(INSERT_LINE_SQL, lineRows);
+        });
+        batch.forEach(order -> queued.remove(order.id()));
+        processed.addAndGet(batch.size());
+        return results;
+    }
+
+    private static ProcessedOrder validate(PendingOrder order, Map<Long, Product> products) {
+        double total = 0;
+        for (OrderRequest.Line line : order.lines()) {
+            Product product = products.get(line.productId());
+            if (product == null) {
+                return ProcessedOrder.rejected(order.id(), "Product " + line.productId() + " does not exist");
+            }
+            if (product.getPrice() == null || Double.compare(product.getPrice(), line.unitPrice()) != 0) {
+                return ProcessedOrder.rejected(order.id(), "Price of product " + line.productId()
+                        + " changed to " + product.getPrice());
+            }
+            total += line.quantity() * line.unitPrice();
+        }
+        return new ProcessedOrder(order.id(), Order.Status.ACCEPTED, total, null);
+    }
+
+    record PendingOrder(String id, String username, List<OrderRequest.Line> lines, Instant createdAt) {
+    }
+
+    record ProcessedOrder(String id, Order.Status status, Double total, String reason) {
+
+        static ProcessedOrder rejected(String id, String reason) {
+            return new ProcessedOrder(id, Order.Status.REJECTED, null, reason);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.vlad.store.store_management.service;
+
+import com.vlad.store.store_management.analytics.ProductColumns;
+import com.vlad.store.store_management.dto.PriceHistogram;
+import com.vlad.store.store_management.dto.PriceStats;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Price aggregates answered from the columnar snapshot; until it is built they are computed
+// from the product projections instead
+@Service
+public class ProductAnalyticsService {
+
+    static final int MAX_BUCKETS = 1000;
+
+    private final ProductColumns columns;
+    private final ProductRepository productRepository;
+
+    public ProductAnalyticsService(ProductColumns columns, ProductRepository productRepository) {
+        this.columns = columns;
+        this.productRepository = productRepository;
+    }
+
+    public PriceStats priceStats(String namePrefix, Double minPrice, Double maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice " + minPrice + " is above maxPrice " + maxPrice);
+        }
+        String prefix = emptyToNull(namePrefix);
+        PriceStats stats = columns.priceStats(prefix, minPrice, maxPrice);
+        return stats != null ? stats : priceStatsFromRepository(prefix, minPrice, maxPrice);
+    }
+
+    public PriceHistogram priceHistogram(String namePrefix, double min, double max, int buckets) {
+        if (!(min < max) || Double.isInfinite(min) || Double.isInfinite(max)) {
+            throw new IllegalArgumentException("min must be below max, both finite: " + min + ", " + max);
+        }
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("buckets must be between 1 and " + MAX_BUCKETS + ": " + buckets);
+        }
+        String prefix = emptyToNull(namePrefix);
+        PriceHistogram histogram = columns.priceHistogram(prefix, min, max, buckets);
+        return histogram != null ? histogram : priceHistogramFromRepository(prefix, min, max, buckets);
+    }
+
+    // Same answers by looping over every row of the table
+    PriceStats priceStatsFromRepository(String namePrefix, Double minPrice, Double maxPrice) {
+        double lo = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+        double hi = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+        long count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (ProductView product : matching(namePrefix)) {
+            Double price = product.price();
+            if (price != null && price >= lo && price <= hi) {
+                count++;
+                sum += price;
+                min = Math.min(min, price);
+                max = Math.max(max, price);
+            }
+        }
+        return PriceStats.of(count, sum, min, max);
+    }
+
+    PriceHistogram priceHistogramFromRepository(String namePrefix, double min, double max, int buckets) {
+        double width = (max - min) / buckets;
+        long[] counts = new long[buckets];
+        for (ProductView product : matching(namePrefix)) {
+            Double price = product.price();
+            if (price != null && price >= min && price <= max) {
+                counts[Math.min(buckets - 1, (int) ((price - min) / width))]++;
+            }
+        }
+        return new PriceHistogram(min, max, width, counts);
+    }
+
+    private List<ProductView> matching(String namePrefix) {
+        List<ProductView> all = productRepository.findAllViews();
+        return namePrefix == null
+                ? all
+                : all.stream().filter(p -> p.name() != null && p.name().startsWith(namePrefix)).toList();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
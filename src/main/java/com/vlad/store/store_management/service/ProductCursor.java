@@ -0,0 +1,31 @@
+package com.vlad.store.store_management.service;
+
+import com.vlad.store.store_management.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+// Opaque keyset cursor: the last id of a page, as 8 bytes in URL-safe base64
+final class ProductCursor {
+
+    private ProductCursor() {
+    }
+
+    static String encode(long lastId) {
+        byte[] bytes = ByteBuffer.allocate(Long.BYTES).putLong(lastId).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static long decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        if (bytes.length != Long.BYTES) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+}
@@ -0,0 +1,171 @@
+package com.vlad.store.store_management.service;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Whole-catalog export for GET /api/products/export: one forward-only, read-only cursor
+// whose rows are encoded straight into an ExportBuffer. Memory does not depend on the
+// catalog size, and the first row is flushed as soon as the cursor delivers it.
+@Service
+public class ProductExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String SELECT_SQL = "SELECT id, name, price, version FROM product ORDER BY id";
+    private static final String CSV_HEADER = "id,name,price,version\n";
+
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export format: " + value + " (csv or ndjson)");
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+
+    public ProductExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // Writes every product to out (which is flushed but not closed) and returns the row count
+    public long export(Format format, OutputStream out) throws IOException {
+        ExportBuffer buffer = new ExportBuffer(out);
+        try {
+            // A transaction keeps the cursor open on drivers that need one for fetch sizes
+            Long rows = readOnlyTx.execute(status ->
+                    jdbcTemplate.execute((ConnectionCallback<Long>) con -> writeRows(con, format, buffer)));
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeRows(Connection con, Format format, ExportBuffer buffer) throws SQLException {
+        // H2 computes a whole result before returning the first row unless told otherwise
+        boolean h2 = "H2".equals(con.getMetaData().getDatabaseProductName());
+        if (h2) {
+            lazyQueryExecution(con, true);
+        }
+        try (PreparedStatement statement = con.prepareStatement(SELECT_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (format == Format.CSV) {
+                    buffer.ascii(CSV_HEADER);
+                }
+                long rows = 0;
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    String name = rs.getString(2);
+                    double price = rs.getDouble(3);
+                    boolean hasPrice = !rs.wasNull();
+                    int version = rs.getInt(4);
+                    boolean hasVersion = !rs.wasNull();
+                    if (format == Format.CSV) {
+                        csvRow(buffer, id, name, hasPrice, price, hasVersion, version);
+                    } else {
+                        jsonRow(buffer, id, name, hasPrice, price, hasVersion, version);
+                    }
+                    if (++rows == 1) {
+                        buffer.flush();
+                    }
+                }
+                buffer.flush();
+                return rows;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (h2) {
+                lazyQueryExecution(con, false);
+            }
+        }
+    }
+
+    // Empty field for NULL
+    private static void csvRow(ExportBuffer buffer, long id, String name, boolean hasPrice, double price,
+                               boolean hasVersion, int version) throws IOException {
+        buffer.number(id);
+        buffer.ascii(',');
+        buffer.csvField(name);
+        buffer.ascii(',');
+        if (hasPrice) {
+            buffer.ascii(Double.toString(price));
+        }
+        buffer.ascii(',');
+        if (hasVersion) {
+            buffer.number(version);
+        }
+        buffer.ascii('\n');
+    }
+
+    // Same fields, order and number format as the Product JSON served by the other endpoints
+    private static void jsonRow(ExportBuffer buffer, long id, String name, boolean hasPrice, double price,
+                                boolean hasVersion, int version) throws IOException {
+        buffer.ascii("{\"id\":");
+        buffer.number(id);
+        buffer.ascii(",\"name\":");
+        buffer.jsonString(name);
+        buffer.ascii(",\"price\":");
+        if (!hasPrice) {
+            buffer.ascii("null");
+        } else if (Double.isFinite(price)) {
+            buffer.ascii(Double.toString(price));
+        } else {
+            // Jackson quotes NaN and Infinity
+            buffer.ascii('"');
+            buffer.ascii(Double.toString(price));
+            buffer.ascii('"');
+        }
+        buffer.ascii(",\"version\":");
+        if (hasVersion) {
+            buffer.number(version);
+        } else {
+            buffer.ascii("null");
+        }
+        buffer.ascii("}\n");
+    }
+
+    private static void lazyQueryExecution(Connection con, boolean enabled) throws SQLException {
+        try (Statement statement = con.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (enabled ? "TRUE" : "FALSE"));
+        }
+    }
+}
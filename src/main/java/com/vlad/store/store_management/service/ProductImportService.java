@@ -0,0 +1,126 @@
+package com.vlad.store.store_management.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.audit.AuditAction;
+import com.vlad.store.store_management.audit.AuditLog;
+import com.vlad.store.store_management.dto.ImportReport;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bulk product import: the body is parsed as a stream and committed in chunks,
+// each chunk in its own transaction, so memory does not grow with the input.
+@Service
+public class ProductImportService {
+
+    static final int MAX_CHUNK_SIZE = 10_000;
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditLog auditLog;
+    private final int defaultChunkSize;
+
+    public ProductImportService(ProductRepository productRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                AuditLog auditLog,
+                                @Value("${products.import.chunk-size:1000}") int defaultChunkSize) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.auditLog = auditLog;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    // Accepts either a JSON array of products or NDJSON (one product per line)
+    public ImportReport importProducts(InputStream body, Integer chunkSize) {
+        int size = chunkSize == null ? defaultChunkSize : Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        ImportProgress progress = new ImportProgress();
+        List<Product> chunk = new ArrayList<>(size);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                Product product = objectMapper.readValue(parser, Product.class);
+                // Ids always come from the sequence and new rows start at version 0
+                product.setId(null);
+                product.setVersion(null);
+                chunk.add(product);
+                if (chunk.size() == size) {
+                    commitChunk(chunk, progress);
+                    chunk = new ArrayList<>(size);
+                }
+                token = parser.nextToken();
+            }
+            if (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                throw new IOException("Expected a product object but found " + token
+                        + " at " + parser.currentLocation());
+            }
+        } catch (IOException e) {
+            // Malformed input: whatever was parsed of the current chunk is not committed
+            progress.fail(chunk.size(), "Malformed input: " + e.getMessage());
+            return progress.report();
+        }
+
+        if (!chunk.isEmpty()) {
+            commitChunk(chunk, progress);
+        }
+        return progress.report();
+    }
+
+    private void commitChunk(List<Product> chunk, ImportProgress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> productRepository.insertBatch(chunk));
+        } catch (RuntimeException e) {
+            progress.fail(chunk.size(), e.getMessage());
+            return;
+        }
+        for (Product product : chunk) {
+            auditLog.record(AuditAction.ADD, product);
+            eventPublisher.publishEvent(ProductChangedEvent.upsert(product));
+        }
+        progress.succeed(chunk.size());
+    }
+
+    private static final class ImportProgress {
+        private long imported;
+        private long failed;
+        private int chunks;
+        private final List<ImportReport.ChunkFailure> failures = new ArrayList<>();
+
+        void succeed(int size) {
+            imported += size;
+            chunks++;
+        }
+
+        void fail(int size, String error) {
+            failures.add(new ImportReport.ChunkFailure(chunks, imported + failed, size, error));
+            failed += size;
+            chunks++;
+        }
+
+        ImportReport report() {
+            return new ImportReport(imported, failed, chunks, failures);
+        }
+    }
+}
@@ -1,42 +1,160 @@
 package com.vlad.store.store_management.service;
 
+import com.vlad.store.store_management.audit.AuditAction;
+import com.vlad.store.store_management.audit.AuditLog;
+import com.vlad.store.store_management.cache.OffHeapProductStore;
+import com.vlad.store.store_management.cache.ProductCache;
+import com.vlad.store.store_management.cache.SingleFlight;
+import com.vlad.store.store_management.changes.ProductChangeLog;
+import com.vlad.store.store_management.dto.CacheStats;
+import com.vlad.store.store_management.dto.ProductPage;
+import com.vlad.store.store_management.dto.ProductQuery;
+import com.vlad.store.store_management.dto.ProductQueryResult;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.exception.InvalidProductQueryException;
 import com.vlad.store.store_management.exception.ProductNotFoundException;
+import com.vlad.store.store_management.exception.ProductVersionMismatchException;
 import com.vlad.store.store_management.model.Product;
 import com.vlad.store.store_management.repository.ProductRepository;
+import com.vlad.store.store_management.search.ProductSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class ProductService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCache productCache;
+    private final OffHeapProductStore offHeapStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditLog auditLog;
+    private final ProductChangeLog changeLog;
+
+    // Cache misses for the same id or name while a load is running share that load
+    private final SingleFlight<Long, Product> idLookups = new SingleFlight<>();
+    private final SingleFlight<String, Optional<Product>> nameLookups = new SingleFlight<>();
 
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductSearchIndex searchIndex,
+                          ProductCache productCache,
+                          OffHeapProductStore offHeapStore,
+                          ApplicationEventPublisher eventPublisher,
+                          AuditLog auditLog,
+                          ProductChangeLog changeLog) {
         this.productRepository = productRepository;
+        this.searchIndex = searchIndex;
+        this.productCache = productCache;
+        this.offHeapStore = offHeapStore;
+        this.eventPublisher = eventPublisher;
+        this.auditLog = auditLog;
+        this.changeLog = changeLog;
+    }
+
+    // Read paths return projections (read-only transaction, flush mode MANUAL); entities are only loaded to write
+    public List<ProductView> getAllProducts() {
+        return productRepository.findAllViews();
+    }
+
+    // Keyset page after the given cursor; nextCursor is null on the last page
+    public ProductPage getProductPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long afterId = cursor == null || cursor.isBlank() ? Long.MIN_VALUE : ProductCursor.decode(cursor);
+
+        // One extra row tells us whether another page exists
+        List<ProductView> rows = productRepository.findViewsAfter(afterId, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new ProductPage(rows, null);
+        }
+        List<ProductView> items = rows.subList(0, pageSize);
+        return new ProductPage(items, ProductCursor.encode(items.get(pageSize - 1).id()));
+    }
+
+    // Offset page of any filter/sort combination; one extra row tells whether another page exists
+    public ProductQueryResult queryProducts(ProductQuery query) {
+        int pageSize = Math.max(1, Math.min(query.size(), MAX_PAGE_SIZE));
+        long offset = (long) query.page() * pageSize;
+        if (offset > Integer.MAX_VALUE - pageSize - 1) {
+            throw new InvalidProductQueryException("page is too large: " + query.page());
+        }
+        List<ProductView> rows = productRepository.findByQuery(query, (int) offset, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new ProductQueryResult(rows, query.page(), pageSize, false);
+        }
+        return new ProductQueryResult(rows.subList(0, pageSize), query.page(), pageSize, true);
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    // Pushes every product to the consumer without materializing the catalog
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<Product> consumer) {
+        productRepository.streamAll(STREAM_FETCH_SIZE, consumer);
     }
 
+    // Read-through: the database is only hit on a cache miss. With the off-heap store
+    // enabled it holds the whole catalog and answers first.
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        Product stored = offHeapStore.get(id);
+        if (stored != null) {
+            return stored;
+        }
+        Product cached = productCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+        return copyOf(idLookups.load(id, () -> {
+            long stamp = productCache.stamp();
+            Product product = findExisting(id);
+            productCache.put(product, stamp);
+            return product;
+        }));
+    }
+
+    // One query for many ids (missing ids are simply absent), always from the database
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        return products;
     }
 
     public Product addProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.upsert(saved));
+        auditLog.record(AuditAction.ADD, saved);
+        return saved;
     }
 
     public Product updateProduct(Long id, Product updatedProduct) {
-        Product existingProduct = getProductById(id); // folosește metoda care aruncă excepție dacă nu există
+        return updateProduct(id, updatedProduct, null);
+    }
+
+    // expectedVersion comes from If-Match; null means "any version"
+    public Product updateProduct(Long id, Product updatedProduct, Integer expectedVersion) {
+        Product existingProduct = findExisting(id); // aruncă excepție dacă nu există; mereu din DB, nu din cache
+        checkVersion(existingProduct, expectedVersion);
         existingProduct.setName(updatedProduct.getName());
         existingProduct.setPrice(updatedProduct.getPrice());
-        return productRepository.save(existingProduct);
+        Product saved = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.upsert(saved));
+        auditLog.record(AuditAction.UPDATE, saved);
+        return saved;
     }
 
     public void deleteProduct(Long id) {
@@ -44,22 +162,95 @@ public class ProductService {
             throw new ProductNotFoundException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.delete(id));
+        auditLog.recordDelete(id);
     }
 
     public Product updateProductPrice(Long id, Double newPrice) {
+        return updateProductPrice(id, newPrice, null);
+    }
+
+    public Product updateProductPrice(Long id, Double newPrice, Integer expectedVersion) {
         return productRepository.findById(id)
                 .map(product -> {
+                    checkVersion(product, expectedVersion);
                     product.setPrice(newPrice);
-                    return productRepository.save(product);
+                    Product saved = productRepository.save(product);
+                    eventPublisher.publishEvent(ProductChangedEvent.upsert(saved));
+                    auditLog.record(AuditAction.UPDATE_PRICE, saved);
+                    return saved;
                 })
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
     }
 
     public Optional<Product> getProductByName(String name) {
-        return productRepository.findByName(name);
+        Product cached = productCache.getByName(name);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return nameLookups.load(name, () -> {
+            long stamp = productCache.stamp();
+            Optional<Product> product = productRepository.findByName(name);
+            product.ifPresent(p -> productCache.put(p, stamp));
+            return product;
+        }).map(ProductService::copyOf);
     }
 
-    public List<Product> getProductsByCustomCriteria(String namePart, double minPrice) {
+    public List<ProductView> getProductsByCustomCriteria(String namePart, double minPrice) {
+        List<ProductView> indexed = searchIndex.search(namePart, minPrice);
+        if (indexed != null) {
+            return indexed;
+        }
         return productRepository.findProductsByCustomCriteria(namePart, minPrice);
     }
+
+    // Bumped on every product mutation (the change log sequence); never touches the database
+    public long getCatalogVersion() {
+        return changeLog.lastSequence();
+    }
+
+    // Version from the in-memory search index, or null when it cannot tell (the caller then reads normally)
+    public Integer getCurrentVersion(Long id) {
+        return searchIndex.currentVersion(id);
+    }
+
+    public CacheStats getCacheStats() {
+        return productCache.stats();
+    }
+
+    public SingleFlight<Long, Product> getIdLookups() {
+        return idLookups;
+    }
+
+    public SingleFlight<String, Optional<Product>> getNameLookups() {
+        return nameLookups;
+    }
+
+    // A lookup that started before the change may return the old state: later callers
+    // must not join it. Renames are not tied to one name, so every name lookup is dropped.
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        idLookups.forget(event.id());
+        nameLookups.forgetAll();
+    }
+
+    // The @Version check on flush still catches writes that race after this point
+    private static void checkVersion(Product product, Integer expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new ProductVersionMismatchException("Product " + product.getId() + " is at version "
+                    + product.getVersion() + ", expected " + expectedVersion);
+        }
+    }
+
+    // Coalesced callers share one loaded entity; each gets its own copy to modify
+    private static Product copyOf(Product product) {
+        Product copy = new Product(product.getId(), product.getName(), product.getPrice());
+        copy.setVersion(product.getVersion());
+        return copy;
+    }
+
+    private Product findExisting(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+    }
 }
@@ -0,0 +1,77 @@
+package com.vlad.store.store_management.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stock of one product packed into a single long: high 32 bits = on hand, low 32 bits =
+// available. Every operation is one CAS or one atomic add, so reservations never take a
+// lock and available can never go below zero.
+public final class StockCounter {
+
+    private static final long LOW_MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLong state;
+
+    public StockCounter(int onHand) {
+        if (onHand < 0) {
+            throw new IllegalArgumentException("Stock cannot be negative");
+        }
+        this.state = new AtomicLong(pack(onHand, onHand));
+    }
+
+    public boolean tryReserve(int quantity) {
+        long current;
+        do {
+            current = state.get();
+            if (available(current) < quantity) {
+                return false;
+            }
+            // available >= quantity, so subtracting from the low half never borrows
+        } while (!state.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    // Only for quantities previously taken by tryReserve
+    public void release(int quantity) {
+        state.getAndAdd(quantity);
+    }
+
+    // The reserved units leave the warehouse: on hand drops, available is already lower
+    public void commit(int quantity) {
+        state.getAndAdd(-((long) quantity << 32));
+    }
+
+    // Sets on hand to an absolute value; fails if that would not cover the open reservations
+    public boolean setOnHand(int onHand) {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long available = available(current) + (onHand - onHand(current));
+            if (onHand < 0 || available < 0) {
+                return false;
+            }
+            next = pack(onHand, (int) available);
+        } while (!state.compareAndSet(current, next));
+        return true;
+    }
+
+    public int onHand() {
+        return onHand(state.get());
+    }
+
+    public int available() {
+        return available(state.get());
+    }
+
+    private static int onHand(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int available(long state) {
+        return (int) (state & LOW_MASK);
+    }
+
+    private static long pack(int onHand, int available) {
+        return ((long) onHand << 32) | available;
+    }
+}
@@ -0,0 +1,189 @@
+package com.vlad.store.store_management.snapshot;
+
+import com.vlad.store.store_management.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+// Export and restore of the product and users tables as one binary snapshot file
+// (format in SnapshotCodec). Both go through plain JDBC: export streams the tables with
+// a fetch size, restore inserts each frame's rows as one JDBC batch, decoded straight
+// from the mapped file. Restore replaces both tables in one transaction and is meant
+// for startup (see DataInitializer), before anything has cached ids or rows.
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final int FETCH_SIZE = 1000;
+    // Product ids come in blocks of allocationSize (50) from product_seq; the restart
+    // value keeps the whole next block above the restored ids
+    private static final int PRODUCT_ID_BLOCK = 50;
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO product (id, name, price, version) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, username, password, role) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogSnapshotService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public record Summary(long products, long users, long bytes, long millis) {
+    }
+
+    public Summary export(Path file, boolean compress) throws IOException {
+        long start = System.nanoTime();
+        long[] counts = new long[2];
+        long bytes;
+        try (SnapshotWriter writer = SnapshotWriter.create(file, compress)) {
+            // One read-only transaction: both tables come from the same point in time
+            readOnlyTx.executeWithoutResult(status -> {
+                jdbcTemplate.query(con -> fetching(con.prepareStatement(
+                                "SELECT id, name, price, version FROM product ORDER BY id")),
+                        (RowCallbackHandler) rs -> {
+                            long id = rs.getLong(1);
+                            String name = rs.getString(2);
+                            Double price = rs.getObject(3, Double.class);
+                            Integer version = rs.getObject(4, Integer.class);
+                            write(() -> writer.product(id, name, price, version));
+                            counts[0]++;
+                        });
+                jdbcTemplate.query(con -> fetching(con.prepareStatement(
+                                "SELECT id, username, password, role FROM users ORDER BY id")),
+                        (RowCallbackHandler) rs -> {
+                            long id = rs.getLong(1);
+                            String username = rs.getString(2);
+                            String password = rs.getString(3);
+                            String role = rs.getString(4);
+                            write(() -> writer.user(id, username, password, role));
+                            counts[1]++;
+                        });
+            });
+            bytes = writer.commit();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Summary summary = new Summary(counts[0], counts[1], bytes, (System.nanoTime() - start) / 1_000_000);
+        log.info("Snapshot exported to {}: {}", file, summary);
+        return summary;
+    }
+
+    // The file is verified completely before the tables are touched, so a damaged
+    // snapshot leaves the database as it was
+    public Summary restore(Path file) throws IOException {
+        long start = System.nanoTime();
+        SnapshotReader.Totals totals = SnapshotReader.verify(file);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM product");
+                jdbcTemplate.update("DELETE FROM users");
+                try {
+                    SnapshotReader.read(file, this::insertFrame);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        restartIdGenerators();
+        eventPublisher.publishEvent(UserChangedEvent.all());
+        Summary summary = new Summary(totals.products(), totals.users(), totals.bytes(),
+                (System.nanoTime() - start) / 1_000_000);
+        log.info("Snapshot restored from {}: {}", file, summary);
+        return summary;
+    }
+
+    private void insertFrame(byte table, int rows, ByteBuffer payload) {
+        // JdbcTemplate asks for the rows in order, so each one is decoded as it is bound
+        jdbcTemplate.batchUpdate(table == SnapshotCodec.PRODUCTS ? INSERT_PRODUCT_SQL : INSERT_USER_SQL,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        if (table == SnapshotCodec.PRODUCTS) {
+                            SnapshotCodec.ProductRow row = SnapshotCodec.getProduct(payload);
+                            ps.setLong(1, row.id());
+                            ps.setString(2, row.name());
+                            setNullable(ps, 3, row.price(), Types.DOUBLE);
+                            setNullable(ps, 4, row.version(), Types.INTEGER);
+                        } else {
+                            SnapshotCodec.UserRow row = SnapshotCodec.getUser(payload);
+                            ps.setLong(1, row.id());
+                            ps.setString(2, row.username());
+                            ps.setString(3, row.password());
+                            ps.setString(4, row.role());
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows;
+                    }
+                });
+    }
+
+    // Rows inserted with explicit ids do not move the generators (H2 syntax). product_seq
+    // never moves backwards: Hibernate may still hold a block below its current value, and
+    // a lower restart would hand out those ids a second time.
+    private void restartIdGenerators() {
+        Long maxProductId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM product", Long.class);
+        Long maxUserId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+        Long nextProductId = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'PRODUCT_SEQ'", Long.class);
+        long restart = Math.max(nextProductId, maxProductId + 1 + PRODUCT_ID_BLOCK);
+        jdbcTemplate.execute("ALTER SEQUENCE product_seq RESTART WITH " + restart);
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (maxUserId + 1));
+    }
+
+    private static PreparedStatement fetching(PreparedStatement statement) throws SQLException {
+        statement.setFetchSize(FETCH_SIZE);
+        return statement;
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+
+    private static void write(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
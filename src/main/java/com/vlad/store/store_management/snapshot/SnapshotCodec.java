@@ -0,0 +1,119 @@
+package com.vlad.store.store_management.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// File: header, then frames, closed by an END frame (a file without one is truncated).
+//   header: "CSNP", int format version, int flags (COMPRESSED), long creation time (epoch ms)
+//   frame:  byte table, int row count, int stored length, int raw length, int CRC32 of the
+//           stored bytes, stored bytes (the raw rows, deflated when the file is compressed)
+// Rows of one table are grouped in frames of about BLOCK_BYTES; all numbers are big-endian.
+final class SnapshotCodec {
+
+    static final int MAGIC = 0x43534E50; // "CSNP"
+    static final int FORMAT_VERSION = 1;
+    static final int COMPRESSED = 1;
+    static final int HEADER = 4 + 4 + 4 + 8;
+    static final int FRAME_HEADER = 1 + 4 + 4 + 4 + 4;
+    static final int BLOCK_BYTES = 1 << 20;
+    // Sanity bound for a frame's declared sizes, far above what the writer produces
+    static final int MAX_FRAME_BYTES = 1 << 28;
+
+    static final byte END = 0;
+    static final byte PRODUCTS = 1;
+    static final byte USERS = 2;
+
+    private static final byte HAS_PRICE = 1;
+    private static final byte HAS_VERSION = 2;
+
+    private SnapshotCodec() {
+    }
+
+    // product row: long id, byte flags, double price, int version, string name
+    static int productSize(byte[] name) {
+        return 8 + 1 + 8 + 4 + stringSize(name);
+    }
+
+    static void putProduct(ByteBuffer buffer, long id, byte[] name, Double price, Integer version) {
+        buffer.putLong(id);
+        byte flags = 0;
+        if (price != null) {
+            flags |= HAS_PRICE;
+        }
+        if (version != null) {
+            flags |= HAS_VERSION;
+        }
+        buffer.put(flags);
+        buffer.putDouble(price != null ? price : 0.0);
+        buffer.putInt(version != null ? version : 0);
+        putString(buffer, name);
+    }
+
+    static ProductRow getProduct(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        byte flags = buffer.get();
+        double price = buffer.getDouble();
+        int version = buffer.getInt();
+        String name = getString(buffer);
+        return new ProductRow(id, name,
+                (flags & HAS_PRICE) != 0 ? price : null,
+                (flags & HAS_VERSION) != 0 ? version : null);
+    }
+
+    // user row: long id, string username, string password, string role
+    static int userSize(byte[] username, byte[] password, byte[] role) {
+        return 8 + stringSize(username) + stringSize(password) + stringSize(role);
+    }
+
+    static void putUser(ByteBuffer buffer, long id, byte[] username, byte[] password, byte[] role) {
+        buffer.putLong(id);
+        putString(buffer, username);
+        putString(buffer, password);
+        putString(buffer, role);
+    }
+
+    static UserRow getUser(ByteBuffer buffer) {
+        return new UserRow(buffer.getLong(), getString(buffer), getString(buffer), getString(buffer));
+    }
+
+    static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    static int checksum(ByteBuffer bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static int stringSize(byte[] value) {
+        return 4 + (value != null ? value.length : 0);
+    }
+
+    // Length -1 stands for NULL
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    record ProductRow(long id, String name, Double price, Integer version) {
+    }
+
+    record UserRow(long id, String username, String password, String role) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.vlad.store.store_management.snapshot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+// --snapshot.export=<file> writes a snapshot once the seed, import and generator runners
+// are done; with --snapshot.exit=true the application stops afterwards, which makes it
+// a one-shot export command.
+@Component
+@Order(2)
+public class SnapshotExportRunner implements CommandLineRunner {
+
+    private final CatalogSnapshotService snapshotService;
+    private final ApplicationContext context;
+    private final String exportFile;
+    private final boolean compress;
+    private final boolean exitAfterExport;
+
+    public SnapshotExportRunner(CatalogSnapshotService snapshotService,
+                                ApplicationContext context,
+                                @Value("${snapshot.export:}") String exportFile,
+                                @Value("${snapshot.compress:true}") boolean compress,
+                                @Value("${snapshot.exit:false}") boolean exitAfterExport) {
+        this.snapshotService = snapshotService;
+        this.context = context;
+        this.exportFile = exportFile;
+        this.compress = compress;
+        this.exitAfterExport = exitAfterExport;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (exportFile.isBlank()) {
+            return;
+        }
+        snapshotService.export(Path.of(exportFile), compress);
+        if (exitAfterExport) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.vlad.store.store_management.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Reads a snapshot through read-only memory mappings of up to WINDOW bytes, so files
+// above 2 GB work and the rows are decoded straight from the page cache. Every frame's
+// checksum is verified before its rows are handed out.
+final class SnapshotReader {
+
+    private static final long WINDOW = 256L << 20;
+
+    private SnapshotReader() {
+    }
+
+    @FunctionalInterface
+    interface FrameConsumer {
+        // payload holds exactly the rows of the frame, positioned at the first one
+        void frame(byte table, int rows, ByteBuffer payload);
+    }
+
+    record Totals(long products, long users, long bytes) {
+    }
+
+    // Walks the whole file, checking the header, every checksum and the END frame
+    static Totals verify(Path file) throws IOException {
+        long[] counts = new long[3];
+        long bytes = read(file, false, (table, rows, payload) -> counts[table] += rows);
+        return new Totals(counts[SnapshotCodec.PRODUCTS], counts[SnapshotCodec.USERS], bytes);
+    }
+
+    static long read(Path file, FrameConsumer consumer) throws IOException {
+        return read(file, true, consumer);
+    }
+
+    private static long read(Path file, boolean decode, FrameConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Window window = new Window(channel, size);
+
+            ByteBuffer header = window.bytes(0, SnapshotCodec.HEADER, file);
+            if (header.getInt() != SnapshotCodec.MAGIC) {
+                throw new IOException(file + " is not a catalog snapshot");
+            }
+            int version = header.getInt();
+            if (version != SnapshotCodec.FORMAT_VERSION) {
+                throw new IOException(file + " has snapshot format " + version
+                        + ", this build reads " + SnapshotCodec.FORMAT_VERSION);
+            }
+            boolean compressed = (header.getInt() & SnapshotCodec.COMPRESSED) != 0;
+
+            Inflater inflater = compressed ? new Inflater() : null;
+            ByteBuffer inflated = null;
+            try {
+                long position = SnapshotCodec.HEADER;
+                while (true) {
+                    ByteBuffer frame = window.bytes(position, SnapshotCodec.FRAME_HEADER, file);
+                    byte table = frame.get();
+                    int rows = frame.getInt();
+                    int storedLength = frame.getInt();
+                    int rawLength = frame.getInt();
+                    int crc = frame.getInt();
+                    position += SnapshotCodec.FRAME_HEADER;
+                    if (table == SnapshotCodec.END) {
+                        return size;
+                    }
+                    if ((table != SnapshotCodec.PRODUCTS && table != SnapshotCodec.USERS) || rows < 0
+                            || storedLength < 0 || storedLength > SnapshotCodec.MAX_FRAME_BYTES
+                            || rawLength < 0 || rawLength > SnapshotCodec.MAX_FRAME_BYTES) {
+                        throw new IOException(file + ": corrupt frame header at offset " + (position - SnapshotCodec.FRAME_HEADER));
+                    }
+                    ByteBuffer stored = window.bytes(position, storedLength, file);
+                    if (SnapshotCodec.checksum(stored) != crc) {
+                        throw new IOException(file + ": checksum mismatch in frame at offset " + (position - SnapshotCodec.FRAME_HEADER));
+                    }
+                    position += storedLength;
+                    if (!decode) {
+                        consumer.frame(table, rows, stored);
+                        continue;
+                    }
+                    ByteBuffer payload = stored;
+                    if (inflater != null) {
+                        if (inflated == null || inflated.capacity() < rawLength) {
+                            inflated = ByteBuffer.allocate(Math.max(rawLength, SnapshotCodec.BLOCK_BYTES));
+                        }
+                        payload = inflate(inflater, stored, inflated, rawLength, file);
+                    }
+                    consumer.frame(table, rows, payload);
+                }
+            } finally {
+                if (inflater != null) {
+                    inflater.end();
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer inflate(Inflater inflater, ByteBuffer stored, ByteBuffer target, int rawLength, Path file)
+            throws IOException {
+        inflater.reset();
+        inflater.setInput(stored);
+        target.clear().limit(rawLength);
+        try {
+            while (target.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(target) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(file + ": corrupt compressed frame", e);
+        }
+        if (target.hasRemaining()) {
+            throw new IOException(file + ": compressed frame shorter than declared");
+        }
+        return target.flip();
+    }
+
+    // The current mapping; moved forward whenever a request falls outside it
+    private static final class Window {
+        private final FileChannel channel;
+        private final long fileSize;
+        private MappedByteBuffer mapped;
+        private long start;
+
+        Window(FileChannel channel, long fileSize) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+        }
+
+        ByteBuffer bytes(long position, int length, Path file) throws IOException {
+            if (position + length > fileSize) {
+                throw new IOException(file + " is truncated");
+            }
+            if (mapped == null || position < start || position + length > start + mapped.capacity()) {
+                long mapSize = Math.min(fileSize - position, Math.max(WINDOW, length));
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, mapSize);
+                start = position;
+            }
+            return mapped.slice((int) (position - start), length);
+        }
+    }
+}
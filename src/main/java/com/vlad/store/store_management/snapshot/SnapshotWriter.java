@@ -0,0 +1,150 @@
+package com.vlad.store.store_management.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+
+// Writes a snapshot to "<file>.tmp" and moves it over the target on close, so a reader
+// never sees a half-written file under the final name. Not thread-safe.
+final class SnapshotWriter implements AutoCloseable {
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final Deflater deflater;
+
+    private ByteBuffer block = ByteBuffer.allocate(SnapshotCodec.BLOCK_BYTES);
+    private ByteBuffer compressed;
+    private final ByteBuffer frameHeader = ByteBuffer.allocate(SnapshotCodec.FRAME_HEADER);
+    private byte table = SnapshotCodec.END;
+    private int rows;
+    private long bytesWritten;
+    private boolean committed;
+
+    private SnapshotWriter(Path target, boolean compress) throws IOException {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        this.channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+
+        ByteBuffer header = ByteBuffer.allocate(SnapshotCodec.HEADER);
+        header.putInt(SnapshotCodec.MAGIC);
+        header.putInt(SnapshotCodec.FORMAT_VERSION);
+        header.putInt(compress ? SnapshotCodec.COMPRESSED : 0);
+        header.putLong(System.currentTimeMillis());
+        write(header.flip());
+    }
+
+    static SnapshotWriter create(Path target, boolean compress) throws IOException {
+        return new SnapshotWriter(target, compress);
+    }
+
+    void product(long id, String name, Double price, Integer version) throws IOException {
+        byte[] nameBytes = SnapshotCodec.utf8(name);
+        ensureRoom(SnapshotCodec.PRODUCTS, SnapshotCodec.productSize(nameBytes));
+        SnapshotCodec.putProduct(block, id, nameBytes, price, version);
+        rows++;
+    }
+
+    void user(long id, String username, String password, String role) throws IOException {
+        byte[] usernameBytes = SnapshotCodec.utf8(username);
+        byte[] passwordBytes = SnapshotCodec.utf8(password);
+        byte[] roleBytes = SnapshotCodec.utf8(role);
+        ensureRoom(SnapshotCodec.USERS, SnapshotCodec.userSize(usernameBytes, passwordBytes, roleBytes));
+        SnapshotCodec.putUser(block, id, usernameBytes, passwordBytes, roleBytes);
+        rows++;
+    }
+
+    // Writes the END frame, syncs and publishes the file under its final name
+    long commit() throws IOException {
+        flushBlock();
+        writeFrame(SnapshotCodec.END, 0, ByteBuffer.allocate(0), 0);
+        channel.force(true);
+        channel.close();
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (deflater != null) {
+            deflater.end();
+        }
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // A new table or a full block closes the current frame
+    private void ensureRoom(byte rowTable, int rowSize) throws IOException {
+        if (rowTable != table || block.position() + rowSize > SnapshotCodec.BLOCK_BYTES) {
+            flushBlock();
+            table = rowTable;
+        }
+        if (block.remaining() < rowSize) {
+            // One row larger than a block: the block grows for it
+            block = ByteBuffer.allocate(rowSize);
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        ByteBuffer raw = block.flip();
+        int rawLength = raw.remaining();
+        ByteBuffer stored = deflater != null ? deflate(raw) : raw;
+        writeFrame(table, rows, stored, rawLength);
+        if (block.capacity() > SnapshotCodec.BLOCK_BYTES) {
+            block = ByteBuffer.allocate(SnapshotCodec.BLOCK_BYTES);
+        }
+        block.clear();
+        rows = 0;
+    }
+
+    private ByteBuffer deflate(ByteBuffer raw) {
+        int bound = raw.remaining() + raw.remaining() / 100 + 64;
+        if (compressed == null || compressed.capacity() < bound) {
+            compressed = ByteBuffer.allocate(bound);
+        }
+        compressed.clear();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        while (!deflater.finished()) {
+            if (!compressed.hasRemaining()) {
+                compressed = ByteBuffer.allocate(compressed.capacity() * 2).put(compressed.flip());
+            }
+            deflater.deflate(compressed);
+        }
+        return compressed.flip();
+    }
+
+    private void writeFrame(byte frameTable, int frameRows, ByteBuffer stored, int rawLength) throws IOException {
+        frameHeader.clear();
+        frameHeader.put(frameTable);
+        frameHeader.putInt(frameRows);
+        frameHeader.putInt(stored.remaining());
+        frameHeader.putInt(rawLength);
+        frameHeader.putInt(SnapshotCodec.checksum(stored));
+        write(frameHeader.flip());
+        write(stored);
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.vlad.store.store_management.analytics;
+
+import com.vlad.store.store_management.dto.PriceHistogram;
+import com.vlad.store.store_management.dto.PriceStats;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ProductColumnsTest {
+
+    private static final String[] BRANDS = {"Samsung", "Apple", "Asus", "Lenovo", "Sony", "Sam"};
+    private static final String[] KINDS = {"Laptop", "Phone", "TV", "Tablet"};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProductColumns columns;
+
+    @BeforeEach
+    void setup() {
+        Random random = new Random(11);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + KINDS[random.nextInt(KINDS.length)] + " " + random.nextInt(40);
+            products.add(new Product(null, name, (double) random.nextInt(2000)));
+        }
+        products.add(new Product(null, null, 10.0));
+        products.add(new Product(null, "Samsung without price", null));
+        productRepository.saveAllAndFlush(products);
+
+        columns = new ProductColumns(productRepository, transactionManager);
+        columns.rebuild();
+    }
+
+    @ParameterizedTest
+    @CsvSource(nullValues = "null", value = {
+            "null, null, null",
+            "Samsung, null, null",
+            "Sam, 100, 900",
+            "Asus Laptop, null, 1000",
+            "Apple Phone 3, 500, null",
+            "xyz, null, null",
+            "null, 1999, 1999"
+    })
+    void testPriceStatsMatchTheTable(String prefix, Double min, Double max) {
+        assertStats(expectedStats(productRepository.findAll(), prefix, min, max), columns.priceStats(prefix, min, max));
+    }
+
+    @Test
+    void testHistogramMatchesTheTable() {
+        for (String prefix : new String[]{null, "Sony", "Samsung T"}) {
+            PriceHistogram histogram = columns.priceHistogram(prefix, 250, 1750, 12);
+
+            assertArrayEquals(expectedCounts(productRepository.findAll(), prefix, 250, 1750, 12), histogram.counts());
+            assertEquals(125.0, histogram.bucketWidth());
+        }
+    }
+
+    @Test
+    void testColumnsFollowIncrementalChanges() {
+        List<Product> all = productRepository.findAll();
+        List<Product> current = new ArrayList<>(all);
+
+        // New names land after the sorted dictionary and must still match their prefix
+        Product renamed = all.get(0);
+        renamed.setName("Sammy Speaker");
+        renamed.setPrice(1234.0);
+        renamed.setVersion(renamed.getVersion() + 1);
+        columns.onProductChanged(ProductChangedEvent.upsert(renamed));
+
+        Product deleted = all.get(1);
+        current.remove(deleted);
+        columns.onProductChanged(ProductChangedEvent.delete(deleted.getId()));
+
+        Product added = productRepository.saveAndFlush(new Product(null, "Asus Laptop Neo", 55.5));
+        current.add(added);
+        columns.onProductChanged(ProductChangedEvent.upsert(added));
+
+        assertEquals(current.size(), columns.size());
+        for (String prefix : new String[]{null, "Sam", "Sammy", "Asus L", "Apple"}) {
+            assertStats(expectedStats(current, prefix, null, null), columns.priceStats(prefix, null, null));
+            assertArrayEquals(expectedCounts(current, prefix, 0, 2000, 8),
+                    columns.priceHistogram(prefix, 0, 2000, 8).counts());
+        }
+    }
+
+    @Test
+    void testStaleAndLateEventsAreIgnored() {
+        List<Product> all = productRepository.findAll();
+
+        // An older version of a row, and an upsert arriving after the delete of its product
+        Product older = all.get(0);
+        columns.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPSERT, older.getId(),
+                "Stale name", 99999.0, older.getVersion()));
+        Product deleted = all.get(1);
+        columns.onProductChanged(ProductChangedEvent.delete(deleted.getId()));
+        columns.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPSERT, deleted.getId(),
+                deleted.getName(), deleted.getPrice(), deleted.getVersion() + 1));
+
+        List<Product> current = new ArrayList<>(all);
+        current.remove(deleted);
+        assertEquals(current.size(), columns.size());
+        assertStats(expectedStats(current, null, null, null), columns.priceStats(null, null, null));
+        assertEquals(0, columns.priceStats("Stale", null, null).count());
+    }
+
+    @Test
+    void testLongUnsortedTailIsSortedAgain() {
+        List<Product> current = new ArrayList<>(productRepository.findAll());
+        for (int i = 0; i < ProductColumns.MIN_UNSORTED_NAMES + 10; i++) {
+            Product added = new Product(1_000_000L + i, (i % 2 == 0 ? "Zeta " : "Alpha ") + i, (double) i);
+            added.setVersion(0);
+            current.add(added);
+            columns.onProductChanged(ProductChangedEvent.upsert(added));
+        }
+
+        assertTrue(columns.unsortedNames() < ProductColumns.MIN_UNSORTED_NAMES);
+        assertEquals(current.size(), columns.size());
+        for (String prefix : new String[]{null, "Zeta 1", "Alpha", "Sam"}) {
+            assertStats(expectedStats(current, prefix, null, null), columns.priceStats(prefix, null, null));
+        }
+    }
+
+    @Test
+    void testLargeCatalogScansInParallelChunks() {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 3L * ProductColumns.CHUNK_SIZE + 17; id++) {
+            Product product = new Product(id, (id % 2 == 0 ? "Even " : "Odd ") + id, (double) (id % 1000));
+            products.add(product);
+        }
+        columns.rebuild(products);
+
+        assertStats(expectedStats(products, "Even", 10.0, 500.0), columns.priceStats("Even", 10.0, 500.0));
+        assertArrayEquals(expectedCounts(products, "Odd", 0, 1000, 10),
+                columns.priceHistogram("Odd", 0, 1000, 10).counts());
+    }
+
+    @Test
+    void testNothingAnsweredBeforeTheFirstRebuild() {
+        ProductColumns empty = new ProductColumns(productRepository, transactionManager);
+
+        assertNull(empty.priceStats(null, null, null));
+        assertNull(empty.priceHistogram(null, 0, 1, 1));
+    }
+
+    private static void assertStats(PriceStats expected, PriceStats actual) {
+        assertEquals(expected.count(), actual.count());
+        assertEquals(expected.min(), actual.min());
+        assertEquals(expected.max(), actual.max());
+        if (expected.avg() == null) {
+            assertNull(actual.avg());
+        } else {
+            assertEquals(expected.avg(), actual.avg(), 1e-9);
+        }
+    }
+
+    private static PriceStats expectedStats(List<Product> products, String prefix, Double min, Double max) {
+        List<Double> prices = products.stream()
+                .filter(p -> prefix == null || (p.getName() != null && p.getName().startsWith(prefix)))
+                .map(Product::getPrice)
+                .filter(price -> price != null && (min == null || price >= min) && (max == null || price <= max))
+                .toList();
+        return PriceStats.of(prices.size(),
+                prices.stream().mapToDouble(Double::doubleValue).sum(),
+                prices.stream().mapToDouble(Double::doubleValue).min().orElse(0),
+                prices.stream().mapToDouble(Double::doubleValue).max().orElse(0));
+    }
+
+    private static long[] expectedCounts(List<Product> products, String prefix, double min, double max, int buckets) {
+        long[] counts = new long[buckets];
+        double width = (max - min) / buckets;
+        products.stream()
+                .filter(p -> prefix == null || (p.getName() != null && p.getName().startsWith(prefix)))
+                .map(Product::getPrice)
+                .filter(price -> price != null && price >= min && price <= max)
+                .forEach(price -> counts[Math.min(buckets - 1, (int) ((price - min) / width))]++);
+        return counts;
+    }
+}
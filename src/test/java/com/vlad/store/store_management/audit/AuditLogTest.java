@@ -0,0 +1,69 @@
+package com.vlad.store.store_management.audit;
+
+import com.vlad.store.store_management.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecordsSurviveRotationAndRestart() throws Exception {
+        AuditLog auditLog = new AuditLog(dir, DataSize.ofKilobytes(1));
+        auditLog.start();
+        for (long id = 1; id <= 50; id++) {
+            Product product = new Product(id, "Product " + id, id * 10.0);
+            product.setVersion(0);
+            auditLog.record(AuditAction.ADD, product);
+        }
+        auditLog.recordDelete(7L);
+        auditLog.stop();
+
+        assertTrue(AuditSegments.list(dir).size() > 1, "small segments should have rotated");
+
+        // Reopen: sequences continue after the last record on disk
+        AuditLog reopened = new AuditLog(dir, DataSize.ofKilobytes(1));
+        reopened.start();
+        assertEquals(51, reopened.lastSequence());
+        reopened.recordDelete(8L);
+        reopened.stop();
+
+        List<AuditRecord> records = new ArrayList<>();
+        reopened.replay(1, records::add);
+        assertEquals(52, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).sequence());
+        }
+        AuditRecord first = records.get(0);
+        assertEquals(AuditAction.ADD, first.action());
+        assertEquals("Product 1", first.name());
+        assertEquals(10.0, first.price());
+        assertEquals(0, first.version());
+        assertNull(first.user());
+        assertEquals(AuditAction.DELETE, records.get(50).action());
+        assertNull(records.get(50).price());
+        assertEquals(8L, records.get(51).productId());
+    }
+
+    @Test
+    void testReadFromTheMiddle() throws Exception {
+        AuditLog auditLog = new AuditLog(dir, DataSize.ofKilobytes(1));
+        auditLog.start();
+        for (long id = 1; id <= 30; id++) {
+            auditLog.recordDelete(id);
+        }
+        auditLog.stop();
+
+        List<AuditRecord> page = auditLog.read(20, 5);
+        assertEquals(List.of(20L, 21L, 22L, 23L, 24L), page.stream().map(AuditRecord::productId).toList());
+    }
+}
@@ -0,0 +1,141 @@
+package com.vlad.store.store_management.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapProductStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testJsonIsByteForByteJackson() throws Exception {
+        OffHeapProductStore store = store(16);
+        List<Product> products = List.of(
+                product(1L, "Apple iPhone 15", 4999.99, 0),
+                product(2L, "Ceas \"smart\" \\ nou", 10.0, 3),
+                product(3L, "Televizor încă în cutie €", 1.0E7, 1),
+                product(4L, null, null, 2),
+                product(5L, "Line\nbreak", -0.5, 7),
+                product(6L, "Infinity price", Double.POSITIVE_INFINITY, 1));
+        store.rebuild(products);
+
+        for (Product product : products) {
+            ProductJsonCache.Payload payload = store.json(product.getId(), product.getVersion());
+            assertArrayEquals(objectMapper.writeValueAsBytes(product), payload.json(), product.getName());
+            assertEquals(product.getVersion(), payload.version());
+        }
+        assertNull(store.json(1L, 1));
+        assertNull(store.json(99L, 0));
+    }
+
+    @Test
+    void testGetReturnsAFreshCopy() {
+        OffHeapProductStore store = store(16);
+        store.rebuild(List.of(product(1L, "Apple", 2.5, 4)));
+
+        Product first = store.get(1L);
+        first.setName("changed by the caller");
+
+        Product second = store.get(1L);
+        assertEquals("Apple", second.getName());
+        assertEquals(2.5, second.getPrice());
+        assertEquals(4, second.getVersion());
+        assertNull(store.get(2L));
+    }
+
+    @Test
+    void testFollowsChangesWhileGrowing() {
+        // Tiny initial capacity: records, names and index all grow and the name arena is compacted
+        OffHeapProductStore store = store(16);
+        store.rebuild(List.of());
+        Map<Long, Product> expected = new HashMap<>();
+        Set<Long> deleted = new HashSet<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextInt(8) == 0) {
+                expected.remove(id);
+                deleted.add(id);
+                store.onProductChanged(ProductChangedEvent.delete(id));
+            } else {
+                Product product = product(id, random.nextBoolean() ? null : "Product " + id + "-" + i,
+                        random.nextInt(10) == 0 ? null : (double) random.nextInt(100_000) / 100, i);
+                // Ids are never reused: an upsert after the delete is a late one and is ignored
+                if (!deleted.contains(id)) {
+                    expected.put(id, product);
+                }
+                store.onProductChanged(ProductChangedEvent.upsert(product));
+            }
+        }
+
+        assertEquals(expected.size(), store.size());
+        for (long id = 1; id <= 5_000; id++) {
+            Product stored = store.get(id);
+            Product want = expected.get(id);
+            if (want == null) {
+                assertNull(stored, "id " + id);
+            } else {
+                assertEquals(want.getName(), stored.getName(), "id " + id);
+                assertEquals(want.getPrice(), stored.getPrice(), "id " + id);
+                assertEquals(want.getVersion(), stored.getVersion(), "id " + id);
+            }
+        }
+    }
+
+    @Test
+    void testOlderVersionsAreIgnored() throws Exception {
+        OffHeapProductStore store = store(16);
+        store.rebuild(List.of(product(1L, "Apple", 2.5, 4), product(2L, "Pear", 1.0, null)));
+
+        store.onProductChanged(ProductChangedEvent.upsert(product(1L, "Apple old", 2.0, 3)));
+        store.onProductChanged(ProductChangedEvent.upsert(product(1L, "Apple same", 2.0, 4)));
+        store.onProductChanged(ProductChangedEvent.upsert(product(2L, "Pear new", 1.5, 0)));
+
+        Product kept = store.get(1L);
+        assertEquals("Apple", kept.getName());
+        assertEquals(4, kept.getVersion());
+        assertArrayEquals(objectMapper.writeValueAsBytes(product(1L, "Apple", 2.5, 4)), store.json(1L, 4).json());
+        // Unversioned data is always replaced
+        assertEquals("Pear new", store.get(2L).getName());
+
+        store.onProductChanged(ProductChangedEvent.upsert(product(1L, "Apple new", 3.0, 5)));
+        assertEquals("Apple new", store.get(1L).getName());
+    }
+
+    @Test
+    void testDisabledStoreHoldsNothing() {
+        OffHeapProductStore store = new OffHeapProductStore(null, null, objectMapper, false, 16);
+        List<Product> products = new ArrayList<>(List.of(product(1L, "Apple", 1.0, 0)));
+
+        store.rebuild(products);
+        store.onProductChanged(ProductChangedEvent.upsert(products.get(0)));
+
+        assertFalse(store.isReady());
+        assertNull(store.get(1L));
+        assertNull(store.json(1L, 0));
+        assertEquals(0, store.offHeapBytes());
+    }
+
+    private OffHeapProductStore store(int initialCapacity) {
+        return new OffHeapProductStore(null, null, objectMapper, true, initialCapacity);
+    }
+
+    private static Product product(Long id, String name, Double price, Integer version) {
+        Product product = new Product(id, name, price);
+        product.setVersion(version);
+        return product;
+    }
+}
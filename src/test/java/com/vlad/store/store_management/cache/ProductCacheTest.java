@@ -0,0 +1,77 @@
+package com.vlad.store.store_management.cache;
+
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        ProductCache cache = new ProductCache(100, TTL, now::get);
+        cache.put(product(1L, "Apple", 3), cache.stamp());
+
+        now.addAndGet(TTL.toNanos() - 1);
+        assertEquals("Apple", cache.getById(1L).getName());
+        assertEquals(1, cache.nameCount());
+
+        now.incrementAndGet();
+        assertNull(cache.getById(1L));
+        // The name mapping goes with the entry, not only on the next lookup by that name
+        assertEquals(0, cache.nameCount());
+        assertNull(cache.getByName("Apple"));
+        assertEquals(0, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void testLoadRacingWithAnInvalidationIsNotCached() {
+        ProductCache cache = new ProductCache(100, TTL, now::get);
+        long stamp = cache.stamp();
+        cache.onProductChanged(ProductChangedEvent.upsert(product(1L, "Apple", 4)));
+
+        cache.put(product(1L, "Apple", 3), stamp);
+
+        assertNull(cache.getById(1L));
+        assertNull(cache.getByName("Apple"));
+        assertEquals(0, cache.nameCount());
+
+        cache.put(product(1L, "Apple", 4), cache.stamp());
+        assertEquals(4, cache.getById(1L).getVersion());
+    }
+
+    @Test
+    void testLookupByName() {
+        ProductCache cache = new ProductCache(100, TTL, now::get);
+        cache.put(product(1L, "Apple", 0), cache.stamp());
+
+        Product cached = cache.getByName("Apple");
+        assertEquals(1L, cached.getId());
+        // Callers get their own copy
+        cached.setName("Changed");
+        assertEquals("Apple", cache.getByName("Apple").getName());
+
+        // Renamed: the old name no longer finds it, the new one does
+        cache.invalidate(1L);
+        cache.put(product(1L, "Pear", 1), cache.stamp());
+        assertNull(cache.getByName("Apple"));
+        assertEquals(1L, cache.getByName("Pear").getId());
+        assertEquals(1, cache.nameCount());
+        assertNull(cache.getByName("Plum"));
+    }
+
+    private static Product product(Long id, String name, int version) {
+        Product product = new Product(id, name, 10.0);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,116 @@
+package com.vlad.store.store_management.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSameVersionReusesBytes() throws Exception {
+        ProductJsonCache cache = new ProductJsonCache(objectMapper, 10, 1024);
+        Product product = product(1L, "Apple", 2);
+
+        ProductJsonCache.Payload first = cache.encode(product);
+
+        assertSame(first, cache.encode(product(1L, "Apple", 2)));
+        assertSame(first, cache.get(1L, 2));
+        assertNull(cache.get(1L, 3));
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), first.json());
+    }
+
+    @Test
+    void testViewAndEntityShareThePayload() {
+        ProductJsonCache cache = new ProductJsonCache(objectMapper, 10, 1024);
+        Product product = product(1L, "Apple", 2);
+
+        ProductJsonCache.Payload fromView = cache.encode(ProductView.of(product));
+
+        assertSame(fromView, cache.encode(product));
+    }
+
+    @Test
+    void testNewerVersionIsNotReplacedByOlder() {
+        ProductJsonCache cache = new ProductJsonCache(objectMapper, 10, 1024);
+
+        cache.encode(product(1L, "Apple v3", 3));
+        cache.encode(product(1L, "Apple v2", 2));
+
+        assertNotNull(cache.get(1L, 3));
+        assertNull(cache.get(1L, 2));
+    }
+
+    @Test
+    void testChangeEventInvalidates() {
+        ProductJsonCache cache = new ProductJsonCache(objectMapper, 10, 1024);
+        cache.encode(product(1L, "Apple", 2));
+
+        cache.onProductChanged(ProductChangedEvent.delete(1L));
+
+        assertNull(cache.get(1L, 2));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testUnversionedProductsAreNotCached() {
+        ProductJsonCache cache = new ProductJsonCache(objectMapper, 10, 1024);
+
+        cache.encode(new Product(1L, "Apple", 1.0));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testListIsSplicedFromCachedPayloads() throws Exception {
+        ProductJsonCache cache = new ProductJsonCache(objectMapper, 10, 1024);
+        List<Product> products = List.of(product(1L, "Apple", 0), product(2L, "Pear", 0));
+
+        ProductJsonCache.Payload list = cache.encodeList(products.stream().map(ProductView::of).toList());
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(products), list.json());
+        assertEquals("[]", new String(cache.encodeList(List.of()).json()));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testLargePayloadsCarryGzip() throws Exception {
+        ProductJsonCache cache = new ProductJsonCache(objectMapper, 10, 64);
+
+        ProductJsonCache.Payload small = cache.encode(product(1L, "A", 0));
+        ProductJsonCache.Payload large = cache.encode(product(2L, "A".repeat(500), 0));
+
+        assertNull(small.gzip());
+        assertNotNull(large.gzip());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(large.gzip()))) {
+            JsonNode node = objectMapper.readTree(in);
+            assertEquals(500, node.get("name").asText().length());
+        }
+    }
+
+    @Test
+    void testCacheStaysBounded() {
+        ProductJsonCache cache = new ProductJsonCache(objectMapper, 10, 1024);
+        for (long id = 0; id < 100; id++) {
+            cache.encode(product(id, "P" + id, 0));
+        }
+
+        assertTrue(cache.size() <= 10);
+    }
+
+    private static Product product(Long id, String name, int version) {
+        Product product = new Product(id, name, 1.0);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,60 @@
+package com.vlad.store.store_management.changes;
+
+import com.vlad.store.store_management.dto.ChangeSet;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductChangeLogTest {
+
+    private static final long FIRST = 1_000;
+
+    @Test
+    void testChangesSinceReturnsOnlyDeltas() {
+        ProductChangeLog log = new ProductChangeLog(100, FIRST, event -> { });
+        log.onProductChanged(ProductChangedEvent.upsert(new Product(1L, "Prod1", 10.0)));
+        log.onProductChanged(ProductChangedEvent.upsert(new Product(2L, "Prod2", 20.0)));
+        log.onProductChanged(ProductChangedEvent.delete(1L));
+
+        ChangeSet changes = log.changesSince(FIRST, 10);
+
+        assertFalse(changes.reset());
+        assertFalse(changes.hasMore());
+        assertEquals(FIRST + 2, changes.lastSequence());
+        assertEquals(List.of(2L, 1L), changes.changes().stream().map(c -> c.id()).toList());
+        assertEquals(ProductChangedEvent.Type.DELETE, changes.changes().get(1).type());
+    }
+
+    @Test
+    void testPagingWithLimit() {
+        ProductChangeLog log = new ProductChangeLog(100, FIRST, event -> { });
+        for (long id = 1; id <= 5; id++) {
+            log.onProductChanged(ProductChangedEvent.upsert(new Product(id, "P" + id, 1.0)));
+        }
+
+        ChangeSet first = log.changesSince(FIRST - 1, 2);
+        ChangeSet second = log.changesSince(first.lastSequence(), 10);
+
+        assertTrue(first.hasMore());
+        assertEquals(2, first.changes().size());
+        assertEquals(3, second.changes().size());
+        assertEquals(3L, second.changes().get(0).id());
+    }
+
+    @Test
+    void testPositionsOutsideTheWindowRequireResync() {
+        ProductChangeLog log = new ProductChangeLog(3, FIRST, event -> { });
+        for (long id = 1; id <= 10; id++) {
+            log.onProductChanged(ProductChangedEvent.upsert(new Product(id, "P" + id, 1.0)));
+        }
+
+        assertTrue(log.changesSince(0, 10).reset());
+        assertTrue(log.changesSince(FIRST, 10).reset());
+        assertFalse(log.changesSince(FIRST + 6, 10).reset());
+        assertEquals(3, log.changesSince(FIRST + 6, 10).changes().size());
+    }
+}
@@ -1,6 +1,16 @@
 package com.vlad.store.store_management.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.cache.OffHeapProductStore;
+import com.vlad.store.store_management.cache.ProductJsonCache;
+import com.vlad.store.store_management.dto.ProductPage;
+import com.vlad.store.store_management.dto.ProductQuery;
+import com.vlad.store.store_management.dto.ProductQueryResult;
+import com.vlad.store.store_management.dto.ProductView;
 import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.exception.ProductVersionMismatchException;
+import com.vlad.store.store_management.service.BatchPriceUpdateService;
+import com.vlad.store.store_management.service.ProductImportService;
 import com.vlad.store.store_management.service.ProductService;
 import com.vlad.store.store_management.exception.ProductNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,9 +21,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,20 +38,31 @@ public class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductImportService productImportService;
+
+    @Mock
+    private BatchPriceUpdateService batchPriceUpdateService;
+
+    private ProductJsonCache productJsonCache;
+
     private ProductController productController;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        productController = new ProductController(productService);
+        ObjectMapper objectMapper = new ObjectMapper();
+        productJsonCache = new ProductJsonCache(objectMapper, 100, 64);
+        productController = new ProductController(productService, productImportService, batchPriceUpdateService,
+                objectMapper, productJsonCache, new OffHeapProductStore(null, null, objectMapper, false, 0));
         mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
     }
 
     @Test
     void testGetAllProducts() throws Exception {
-        List<Product> products = List.of(
-                new Product(1L, "Prod1", 10.0),
-                new Product(2L, "Prod2", 20.0));
+        List<ProductView> products = List.of(
+                new ProductView(1L, "Prod1", 10.0, 0),
+                new ProductView(2L, "Prod2", 20.0, 0));
         when(productService.getAllProducts()).thenReturn(products);
 
         mockMvc.perform(get("/api/products"))
@@ -65,6 +89,75 @@ public class ProductControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetProductById_NotModified() throws Exception {
+        when(productService.getCurrentVersion(1L)).thenReturn(4);
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(content().string(""));
+
+        verify(productService, never()).getProductById(anyLong());
+    }
+
+    @Test
+    void testGetProductById_StaleETag() throws Exception {
+        Product product = new Product(1L, "Prod1", 10.0);
+        product.setVersion(5);
+        when(productService.getCurrentVersion(1L)).thenReturn(5);
+        when(productService.getProductById(1L)).thenReturn(product);
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+    }
+
+    @Test
+    void testGetProductById_ServedFromJsonCache() throws Exception {
+        Product product = new Product(1L, "Prod1", 10.0);
+        product.setVersion(2);
+        productJsonCache.encode(product);
+        when(productService.getCurrentVersion(1L)).thenReturn(2);
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.name").value("Prod1"));
+
+        verify(productService, never()).getProductById(anyLong());
+    }
+
+    @Test
+    void testSearchProducts_Gzip() throws Exception {
+        List<ProductView> products = List.of(
+                new ProductView(1L, "Apple", 15.0, 0),
+                new ProductView(2L, "Apple Juice", 20.0, 0));
+        when(productService.getProductsByCustomCriteria("Apple", 10.0)).thenReturn(products);
+
+        byte[] body = mockMvc.perform(get("/api/products/search")
+                        .header("Accept-Encoding", "gzip, deflate")
+                        .param("namePart", "Apple")
+                        .param("minPrice", "10.0"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(2, new ObjectMapper().readTree(in).size());
+        }
+    }
+
+    @Test
+    void testGetAllProducts_NotModified() throws Exception {
+        when(productService.getCatalogVersion()).thenReturn(42L);
+
+        mockMvc.perform(get("/api/products").header("If-None-Match", "\"c41\", \"c42\""))
+                .andExpect(status().isNotModified());
+
+        verify(productService, never()).getAllProducts();
+    }
+
     @Test
     void testAddProduct() throws Exception {
         Product productToAdd = new Product(null, "ProdNew", 30.0);
@@ -181,9 +274,9 @@ public class ProductControllerTest {
 
     @Test
     void testSearchProducts_WithResults() throws Exception {
-        List<Product> products = List.of(
-                new Product(1L, "Apple", 15.0),
-                new Product(2L, "Apple Juice", 20.0));
+        List<ProductView> products = List.of(
+                new ProductView(1L, "Apple", 15.0, 0),
+                new ProductView(2L, "Apple Juice", 20.0, 0));
         when(productService.getProductsByCustomCriteria("Apple", 10.0)).thenReturn(products);
 
         mockMvc.perform(get("/api/products/search")
@@ -202,4 +295,67 @@ public class ProductControllerTest {
                         .param("minPrice", "10.0"))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void testGetProductPage() throws Exception {
+        ProductPage page = new ProductPage(
+                List.of(new ProductView(1L, "Prod1", 10.0, 0), new ProductView(2L, "Prod2", 20.0, 0)),
+                "AAAAAAAAAAI");
+        when(productService.getProductPage(null, 2)).thenReturn(page);
+
+        mockMvc.perform(get("/api/products/page")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("AAAAAAAAAAI"));
+    }
+
+    @Test
+    void testQueryProducts() throws Exception {
+        ProductQuery query = new ProductQuery("Apple", null, 10.0, null, ProductQuery.SortKey.PRICE, true, 0, 50);
+        when(productService.queryProducts(query)).thenReturn(new ProductQueryResult(
+                List.of(new ProductView(2L, "Apple Juice", 20.0, 0)), 0, 50, false));
+
+        mockMvc.perform(get("/api/products/query")
+                        .param("nameContains", "Apple")
+                        .param("minPrice", "10")
+                        .param("sort", "price")
+                        .param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Apple Juice"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void testQueryProducts_InvalidSort() throws Exception {
+        mockMvc.perform(get("/api/products/query").param("sort", "color"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void testUpdateProduct_IfMatchMismatch() throws Exception {
+        when(productService.updateProduct(eq(1L), any(Product.class), eq(3)))
+                .thenThrow(new ProductVersionMismatchException("Product 1 is at version 4, expected 3"));
+
+        mockMvc.perform(put("/api/products/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"ProdUpdated\", \"price\": 40.0}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testUpdatePrice_ReturnsETag() throws Exception {
+        Product updated = new Product(1L, "Prod1", 99.99);
+        updated.setVersion(5);
+        when(productService.updateProductPrice(1L, 99.99, 4)).thenReturn(updated);
+
+        mockMvc.perform(patch("/api/products/1/price")
+                        .header("If-Match", "\"4\"")
+                        .param("price", "99.99"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+    }
 }
@@ -0,0 +1,105 @@
+package com.vlad.store.store_management.repository;
+
+import com.vlad.store.store_management.dto.ProductQuery;
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ProductQueryTest {
+
+    private static final String[] BRANDS = {"Samsung", "Apple", "Asus", "Lenovo", "Sony", "100%"};
+    private static final String[] KINDS = {"Laptop", "Phone", "TV", "Tablet"};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductRepositoryCustomImpl productRepositoryCustom;
+
+    private List<ProductView> all;
+
+    @BeforeEach
+    void setup() {
+        Random random = new Random(7);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + KINDS[random.nextInt(KINDS.length)] + " " + random.nextInt(50);
+            products.add(new Product(null, name, (double) random.nextInt(100)));
+        }
+        all = productRepository.saveAllAndFlush(products).stream().map(ProductView::of).toList();
+    }
+
+    @ParameterizedTest
+    @CsvSource(nullValues = "null", value = {
+            "null, null, null, null, id, asc",
+            "Laptop, null, null, null, price, desc",
+            "null, Sam, 10, 60, name, asc",
+            "ung, Sam, null, 40, price, asc",
+            "null, null, 25, 25, id, desc",
+            "100%, null, null, null, name, desc",
+            "0%, null, null, null, id, asc",
+            "xyz, null, null, null, id, asc"
+    })
+    void testQueryMatchesInMemoryFilter(String contains, String prefix, Double min, Double max,
+                                        String sort, String direction) {
+        ProductQuery query = ProductQuery.of(contains, prefix, min, max, sort, direction, 0, 1000);
+
+        assertEquals(expected(query), productRepository.findByQuery(query, 0, 1000));
+    }
+
+    @Test
+    void testPagesFollowTheSortOrder() {
+        ProductQuery query = ProductQuery.of(null, null, null, null, "price", "asc", 0, 20);
+        List<ProductView> expected = expected(query);
+
+        List<ProductView> paged = new ArrayList<>();
+        for (int offset = 0; offset < expected.size(); offset += 20) {
+            paged.addAll(productRepository.findByQuery(query, offset, 20));
+        }
+
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void testOnePlanPerShape() {
+        int before = productRepositoryCustom.queryPlanCount();
+
+        productRepository.findByQuery(ProductQuery.of("Laptop", null, 10.0, null, "name", "asc", 0, 10), 0, 10);
+        productRepository.findByQuery(ProductQuery.of("Phone", null, 50.0, null, "name", "asc", 0, 10), 0, 10);
+        productRepository.findByQuery(ProductQuery.of("Phone", null, 50.0, null, "name", "desc", 0, 10), 0, 10);
+
+        assertEquals(before + 2, productRepositoryCustom.queryPlanCount());
+    }
+
+    private List<ProductView> expected(ProductQuery query) {
+        Comparator<ProductView> order = switch (query.sort()) {
+            case ID -> Comparator.comparing(ProductView::id);
+            case NAME -> Comparator.comparing(ProductView::name);
+            case PRICE -> Comparator.comparing(ProductView::price);
+        };
+        if (query.descending()) {
+            order = order.reversed();
+        }
+        Stream<ProductView> rows = all.stream()
+                .filter(p -> query.nameContains() == null || p.name().contains(query.nameContains()))
+                .filter(p -> query.namePrefix() == null || p.name().startsWith(query.namePrefix()))
+                .filter(p -> query.minPrice() == null || p.price() >= query.minPrice())
+                .filter(p -> query.maxPrice() == null || p.price() <= query.maxPrice());
+        return rows.sorted(order.thenComparing(ProductView::id)).toList();
+    }
+}
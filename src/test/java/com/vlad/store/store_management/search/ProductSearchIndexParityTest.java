@@ -0,0 +1,136 @@
+package com.vlad.store.store_management.search;
+
+import com.vlad.store.store_management.dto.ProductView;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ProductSearchIndexParityTest {
+
+    private static final String[] BRANDS = {"Samsung", "Apple", "Asus", "Lenovo", "Sony", "LG", "iPhone"};
+    private static final String[] KINDS = {"Laptop", "Phone", "TV", "Tablet", "Watch", "Monitor"};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + KINDS[random.nextInt(KINDS.length)] + " " + random.nextInt(100);
+            products.add(new Product(null, name, (double) random.nextInt(5000)));
+        }
+        products.add(new Product(null, null, 10.0));
+        products.add(new Product(null, "Laptop without price", null));
+        productRepository.saveAllAndFlush(products);
+
+        index = new ProductSearchIndex(productRepository, transactionManager);
+        index.rebuild();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Samsung, 0",
+            "ung, 1000",
+            "a, 2500",
+            "'', 100",
+            "Laptop 1, 0",
+            "sus Tab, 10",
+            "samsung, 0",
+            "xyz, 0",
+            "Phone, 4999"
+    })
+    void testIndexMatchesJpql(String namePart, double minPrice) {
+        assertEquals(jpqlIds(namePart, minPrice), indexIds(namePart, minPrice));
+    }
+
+    @Test
+    void testIndexFollowsIncrementalChanges() {
+        List<Product> all = productRepository.findAll();
+
+        Product renamed = all.get(0);
+        renamed.setName("Samsung Fridge 7");
+        renamed.setPrice(7000.0);
+        productRepository.saveAndFlush(renamed);
+        index.onProductChanged(ProductChangedEvent.upsert(renamed));
+
+        Product deleted = all.get(1);
+        productRepository.deleteById(deleted.getId());
+        productRepository.flush();
+        index.onProductChanged(ProductChangedEvent.delete(deleted.getId()));
+
+        Product added = productRepository.saveAndFlush(new Product(null, "Samsung Fridge 8", 6500.0));
+        index.onProductChanged(ProductChangedEvent.upsert(added));
+
+        assertEquals(jpqlIds("Fridge", 0), indexIds("Fridge", 0));
+        assertEquals(jpqlIds("Samsung", 6000), indexIds("Samsung", 6000));
+        assertEquals(jpqlIds("a", 0), indexIds("a", 0));
+    }
+
+    @Test
+    void testOlderEventsDoNotOverwriteNewerOnes() {
+        Long id = productRepository.findAll().get(0).getId();
+
+        index.onProductChanged(ProductChangedEvent.upsert(product(id, "Fridge v2", 2)));
+        index.onProductChanged(ProductChangedEvent.upsert(product(id, "Fridge v1", 1)));
+        index.onProductChanged(ProductChangedEvent.upsert(product(id, "Fridge v2 again", 2)));
+
+        assertEquals(2, index.currentVersion(id));
+        assertEquals(List.of(id), indexIds("Fridge v2", 0));
+        assertEquals(List.of(), indexIds("Fridge v1", 0));
+        assertEquals(List.of(), indexIds("again", 0));
+
+        // A late upsert does not bring a deleted product back
+        index.onProductChanged(ProductChangedEvent.delete(id));
+        index.onProductChanged(ProductChangedEvent.upsert(product(id, "Fridge v3", 3)));
+
+        assertNull(index.currentVersion(id));
+        assertEquals(List.of(), indexIds("Fridge", 0));
+    }
+
+    @Test
+    void testWildcardPatternsFallBackToJpql() {
+        assertNull(index.search("Sam%ung", 0));
+        assertNull(index.search("Sam_ung", 0));
+    }
+
+    private static Product product(Long id, String name, int version) {
+        Product product = new Product(id, name, 100.0);
+        product.setVersion(version);
+        return product;
+    }
+
+    private List<Long> jpqlIds(String namePart, double minPrice) {
+        return productRepository.findProductsByCustomCriteria(namePart, minPrice).stream()
+                .map(ProductView::id)
+                .sorted()
+                .toList();
+    }
+
+    private List<Long> indexIds(String namePart, double minPrice) {
+        return index.search(namePart, minPrice).stream()
+                .map(ProductView::id)
+                .toList();
+    }
+}
@@ -0,0 +1,65 @@
+package com.vlad.store.store_management.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "unSecretFoarteLungSiSigurCareAreCelPutin32Caractere!";
+
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "validityInMilliseconds", 3_600_000L);
+        provider.init();
+    }
+
+    @Test
+    void testGeneratedTokenIsAcceptedByJjwt() {
+        String token = provider.generateToken("user1", List.of("ROLE_USER", "ROLE_ADMIN"));
+
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        assertEquals("user1", claims.getSubject());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), claims.get("roles"));
+        assertEquals(3600, claims.getExpiration().getTime() / 1000 - claims.getIssuedAt().getTime() / 1000);
+    }
+
+    @Test
+    void testRoundTripEscapesClaims() {
+        String token = provider.generateToken("user \"quoted\" ă", List.of("ROLE_\\X"));
+
+        VerifiedToken verified = provider.parseVerified(token);
+
+        assertEquals("user \"quoted\" ă", verified.subject());
+        assertEquals(List.of("ROLE_\\X"), verified.roles());
+        assertTrue(verified.expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() {
+        String token = provider.generateToken("user1", List.of("ROLE_USER"));
+        String forged = provider.generateToken("admin1", List.of("ROLE_ADMIN"));
+        String tampered = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        assertThrows(JwtException.class, () -> provider.parseVerified(tampered));
+        assertFalse(provider.validateToken(tampered));
+    }
+}
@@ -0,0 +1,73 @@
+package com.vlad.store.store_management.security;
+
+import com.vlad.store.store_management.event.UserChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserDetailsCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Test
+    void testErasedCredentialsDoNotLeakIntoCache() {
+        UserDetailsCache cache = new UserDetailsCache(10, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.putUserInCache(user("user1"));
+
+        // ProviderManager calls eraseCredentials() on the principal after login
+        ((User) cache.getUserFromCache("user1")).eraseCredentials();
+
+        UserDetails cached = cache.getUserFromCache("user1");
+        assertEquals("userpass", cached.getPassword());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(cached.getAuthorities()));
+    }
+
+    @Test
+    void testExpiredAndRemovedUsersAreReloaded() {
+        UserDetailsCache cache = new UserDetailsCache(10, Duration.ZERO, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.putUserInCache(user("user1"));
+        assertNull(cache.getUserFromCache("user1"));
+
+        UserDetailsCache live = new UserDetailsCache(10, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        live.putUserInCache(user("user1"));
+        live.removeUserFromCache("user1");
+        assertNull(live.getUserFromCache("user1"));
+    }
+
+    @Test
+    void testUserChangesEvictFromCache() {
+        UserDetailsCache cache = new UserDetailsCache(10, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.putUserInCache(user("user1"));
+        cache.putUserInCache(user("user2"));
+        cache.putUserInCache(user("user3"));
+
+        cache.onUserChanged(new UserChangedEvent("user1"));
+        assertNull(cache.getUserFromCache("user1"));
+        assertNotNull(cache.getUserFromCache("user2"));
+
+        cache.onUserChanged(UserChangedEvent.all());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testCacheStaysBounded() {
+        UserDetailsCache cache = new UserDetailsCache(10, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        for (int i = 0; i < 100; i++) {
+            cache.putUserInCache(user("user" + i));
+        }
+        assertTrue(cache.size() <= 10);
+    }
+
+    private static UserDetails user(String username) {
+        return new User(username, "userpass", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
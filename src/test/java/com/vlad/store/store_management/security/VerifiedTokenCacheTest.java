@@ -0,0 +1,53 @@
+package com.vlad.store.store_management.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Test
+    void testCachedTokenIsReturned() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, Clock.fixed(NOW, ZoneOffset.UTC));
+        VerifiedToken verified = new VerifiedToken("user1", List.of("ROLE_USER"), NOW.plusSeconds(60));
+
+        cache.put("token-a", verified);
+
+        assertSame(verified, cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+    }
+
+    @Test
+    void testExpiredTokenIsEvicted() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("token-a", new VerifiedToken("user1", List.of("ROLE_USER"), NOW));
+
+        assertNull(cache.get("token-a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testCacheStaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, Clock.fixed(NOW, ZoneOffset.UTC));
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, new VerifiedToken("user" + i, List.of(), NOW.plusSeconds(60)));
+        }
+
+        assertTrue(cache.size() <= 10);
+    }
+
+    @Test
+    void testDisabledCacheStoresNothing() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("token-a", new VerifiedToken("user1", List.of(), NOW.plusSeconds(60)));
+
+        assertNull(cache.get("token-a"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.vlad.store.store_management.service;
+
+import com.vlad.store.store_management.audit.AuditLog;
+import com.vlad.store.store_management.dto.PriceChange;
+import com.vlad.store.store_management.dto.PriceChangeResult;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+// Not transactional: every chunk commits on its own, as it does behind the endpoint
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BatchPriceUpdateServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object> events = new ArrayList<>();
+
+    private BatchPriceUpdateService service;
+    private List<Product> products;
+
+    @BeforeEach
+    void setup() {
+        service = new BatchPriceUpdateService(jdbcTemplate, productRepository, transactionManager,
+                events::add, mock(AuditLog.class));
+        products = productRepository.saveAllAndFlush(List.of(
+                new Product(null, "Samsung S22", 1500.0),
+                new Product(null, "iPhone 15", 1700.0),
+                new Product(null, "Laptop Asus", 4200.0)));
+    }
+
+    @AfterEach
+    void cleanup() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testEveryOutcomeOfOneChunk() {
+        Long updated = products.get(0).getId();
+        Long conflicting = products.get(1).getId();
+        Long missing = products.get(2).getId() + 1000;
+
+        List<PriceChangeResult> results = service.updatePrices(List.of(
+                new PriceChange(updated, 1399.0, 0),
+                new PriceChange(conflicting, 1600.0, 5),
+                new PriceChange(missing, 10.0, 0),
+                new PriceChange(products.get(2).getId(), null, 0)));
+
+        assertEquals(List.of(
+                new PriceChangeResult(updated, PriceChangeResult.Status.UPDATED, 1),
+                new PriceChangeResult(conflicting, PriceChangeResult.Status.CONFLICT, 0),
+                new PriceChangeResult(missing, PriceChangeResult.Status.NOT_FOUND, null),
+                new PriceChangeResult(products.get(2).getId(), PriceChangeResult.Status.INVALID, null)), results);
+
+        Product stored = productRepository.findById(updated).orElseThrow();
+        assertEquals(1399.0, stored.getPrice());
+        assertEquals(1, stored.getVersion());
+        assertEquals(1700.0, productRepository.findById(conflicting).orElseThrow().getPrice());
+        // Only the applied change is published, with the state it committed
+        assertEquals(List.of(new ProductChangedEvent(ProductChangedEvent.Type.UPSERT, updated, "Samsung S22",
+                1399.0, 1)), events);
+    }
+
+    @Test
+    void testSecondChangeAgainstTheOldVersionConflicts() {
+        Long id = products.get(0).getId();
+
+        service.updatePrices(List.of(new PriceChange(id, 1450.0, 0)));
+        List<PriceChangeResult> stale = service.updatePrices(List.of(new PriceChange(id, 1350.0, 0)));
+        List<PriceChangeResult> current = service.updatePrices(List.of(new PriceChange(id, 1350.0, 1)));
+
+        assertEquals(new PriceChangeResult(id, PriceChangeResult.Status.CONFLICT, 1), stale.get(0));
+        assertEquals(new PriceChangeResult(id, PriceChangeResult.Status.UPDATED, 2), current.get(0));
+        Product stored = productRepository.findById(id).orElseThrow();
+        assertEquals(1350.0, stored.getPrice());
+        assertEquals(2, stored.getVersion());
+    }
+
+    @Test
+    void testChangesSpanningSeveralChunks() {
+        List<Product> many = new ArrayList<>();
+        for (int i = 0; i < BatchPriceUpdateService.CHUNK_SIZE + 10; i++) {
+            many.add(new Product(null, "Produs " + i, 1.0));
+        }
+        List<PriceChange> changes = productRepository.saveAllAndFlush(many).stream()
+                .map(product -> new PriceChange(product.getId(), 2.0, 0))
+                .toList();
+
+        List<PriceChangeResult> results = service.updatePrices(changes);
+
+        assertEquals(changes.size(), results.size());
+        assertTrue(results.stream().allMatch(result -> result.status() == PriceChangeResult.Status.UPDATED));
+        assertEquals(changes.size(), events.size());
+        assertEquals(changes.size(), (long) jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM product WHERE price = 2.0 AND version = 1", Long.class));
+    }
+}
@@ -0,0 +1,108 @@
+package com.vlad.store.store_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.audit.AuditAction;
+import com.vlad.store.store_management.audit.AuditLog;
+import com.vlad.store.store_management.dto.ImportReport;
+import com.vlad.store.store_management.dto.PriceChange;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Bulk writes bypass ProductService, so they have to leave their own audit records
+public class BulkWriteAuditTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testBatchPriceUpdateRecordsOnlyAppliedChanges() {
+        BatchPriceUpdateService service = new BatchPriceUpdateService(jdbcTemplate, productRepository,
+                transactionManager, eventPublisher, auditLog);
+        Product updated = product(1L, "Prod1", 12.0, 4);
+        Product conflicting = product(2L, "Prod2", 20.0, 7);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<PriceChange>>any()))
+                .thenReturn(new int[][]{{1, 0}});
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(updated, conflicting));
+
+        service.updatePrices(List.of(new PriceChange(1L, 12.0, 3), new PriceChange(2L, 25.0, 3)));
+
+        verify(auditLog).record(AuditAction.UPDATE_PRICE, updated);
+        verify(auditLog, never()).record(any(), eq(conflicting));
+    }
+
+    @Test
+    void testImportRecordsEveryCommittedProduct() {
+        ProductImportService service = new ProductImportService(productRepository, new ObjectMapper(),
+                transactionManager, eventPublisher, auditLog, 2);
+        long[] nextId = {100};
+        doAnswer(invocation -> {
+            List<Product> chunk = invocation.getArgument(0);
+            if (chunk.stream().anyMatch(product -> "Broken".equals(product.getName()))) {
+                throw new DataIntegrityViolationException("constraint violation");
+            }
+            chunk.forEach(product -> product.setId(nextId[0]++));
+            return null;
+        }).when(productRepository).insertBatch(anyList());
+
+        ImportReport report = service.importProducts(ndjson(
+                "{\"name\":\"A\",\"price\":1.0}",
+                "{\"name\":\"B\",\"price\":2.0}",
+                "{\"name\":\"Broken\",\"price\":3.0}",
+                "{\"name\":\"C\",\"price\":4.0}",
+                "{\"name\":\"D\",\"price\":5.0}"), null);
+
+        assertEquals(3, report.imported());
+        ArgumentCaptor<Product> audited = ArgumentCaptor.forClass(Product.class);
+        verify(auditLog, times(3)).record(eq(AuditAction.ADD), audited.capture());
+        // Recorded with the ids the inserts assigned; the rolled-back chunk leaves no record
+        assertEquals(List.of(100L, 101L, 102L), audited.getAllValues().stream().map(Product::getId).toList());
+        assertEquals(List.of("A", "B", "D"), audited.getAllValues().stream().map(Product::getName).toList());
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Product product(Long id, String name, double price, int version) {
+        Product product = new Product(id, name, price);
+        product.setVersion(version);
+        return product;
+    }
+}
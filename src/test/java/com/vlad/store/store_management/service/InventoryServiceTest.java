@@ -0,0 +1,141 @@
+package com.vlad.store.store_management.service;
+
+import com.vlad.store.store_management.dto.StockReservation;
+import com.vlad.store.store_management.exception.InsufficientStockException;
+import com.vlad.store.store_management.exception.ReservationNotFoundException;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class InventoryServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private Clock clock;
+
+    private Instant now = Instant.parse("2025-01-01T10:00:00Z");
+
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(clock.instant()).thenAnswer(invocation -> now);
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(1L))).thenReturn(List.of(5));
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(2L))).thenReturn(List.of());
+        when(productRepository.existsById(anyLong())).thenReturn(true);
+        inventoryService = new InventoryService(jdbcTemplate, productRepository, TTL, clock);
+    }
+
+    @Test
+    void testReservationsNeverOversell() {
+        inventoryService.reserve("user1", 1L, 3);
+
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserve("user1", 1L, 3));
+        inventoryService.reserve("user1", 1L, 2);
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserve("user1", 1L, 1));
+        // No stock row at all
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserve("user1", 2L, 1));
+
+        assertEquals(5, inventoryService.getStock(1L).onHand());
+        assertEquals(0, inventoryService.getStock(1L).available());
+        assertEquals(2, inventoryService.openReservations());
+        // Loaded once, then served from the counter
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Integer.class), eq(1L));
+    }
+
+    @Test
+    void testExpiredReservationsReturnTheirStock() {
+        StockReservation expiring = inventoryService.reserve("user1", 1L, 4);
+        now = now.plus(TTL).minusSeconds(1);
+        StockReservation later = inventoryService.reserve("user1", 1L, 1);
+
+        inventoryService.releaseExpired();
+        assertEquals(0, inventoryService.getStock(1L).available());
+
+        now = now.plusSeconds(1);
+        inventoryService.releaseExpired();
+
+        assertEquals(4, inventoryService.getStock(1L).available());
+        assertEquals(1, inventoryService.openReservations());
+        assertThrows(ReservationNotFoundException.class, () -> inventoryService.commit("user1", expiring.id()));
+
+        // Expired before the sweep ran: committing it gives the units back instead
+        now = now.plus(TTL);
+        assertThrows(ReservationNotFoundException.class, () -> inventoryService.commit("user1", later.id()));
+        assertEquals(5, inventoryService.getStock(1L).available());
+        assertEquals(5, inventoryService.getStock(1L).onHand());
+    }
+
+    @Test
+    void testOnlyTheOwnerCanCommitOrRelease() {
+        StockReservation reservation = inventoryService.reserve("user1", 1L, 2);
+
+        assertThrows(ReservationNotFoundException.class, () -> inventoryService.commit("user2", reservation.id()));
+        assertThrows(ReservationNotFoundException.class, () -> inventoryService.release("user2", reservation.id()));
+        assertEquals(1, inventoryService.openReservations());
+        assertEquals(3, inventoryService.getStock(1L).available());
+
+        inventoryService.release("user1", reservation.id());
+        assertEquals(0, inventoryService.openReservations());
+        assertEquals(5, inventoryService.getStock(1L).available());
+    }
+
+    @Test
+    void testFlushWritesChangedCountersBack() {
+        StockReservation reservation = inventoryService.reserve("user1", 1L, 2);
+        inventoryService.commit("user1", reservation.id());
+        inventoryService.setStock(2L, 7);
+
+        inventoryService.flush();
+
+        assertEquals(Map.of(1L, 3, 2L, 7), flushedRows(1));
+        // Nothing changed since: no second write
+        inventoryService.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[1]);
+        inventoryService.setStock(1L, 9);
+
+        inventoryService.flush();
+        inventoryService.flush();
+
+        assertEquals(Map.of(1L, 9), flushedRows(2));
+    }
+
+    // On-hand values written by the last of the expected batch updates, by product id
+    @SuppressWarnings("unchecked")
+    private Map<Long, Integer> flushedRows(int expectedFlushes) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(expectedFlushes)).batchUpdate(startsWith("MERGE INTO stock"), rows.capture());
+        return rows.getValue().stream().collect(Collectors.toMap(row -> (Long) row[0], row -> (Integer) row[1]));
+    }
+}
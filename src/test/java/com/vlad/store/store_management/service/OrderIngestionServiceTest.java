@@ -0,0 +1,178 @@
+package com.vlad.store.store_management.service;
+
+import com.vlad.store.store_management.dto.OrderDetails;
+import com.vlad.store.store_management.dto.OrderRequest;
+import com.vlad.store.store_management.exception.OrderNotFoundException;
+import com.vlad.store.store_management.exception.OrderQueueFullException;
+import com.vlad.store.store_management.model.Order;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.OrderLineRepository;
+import com.vlad.store.store_management.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OrderIngestionServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderLineRepository orderLineRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testBatchIsPricedWithOneLookup() {
+        OrderIngestionService service = newService(10);
+        when(productService.getProductsByIds(anyCollection())).thenReturn(Map.of(
+                1L, new Product(1L, "Prod1", 10.0),
+                2L, new Product(2L, "Prod2", 20.0)));
+
+        List<OrderIngestionService.ProcessedOrder> results = service.persist(List.of(
+                pending("a", new OrderRequest.Line(1L, 2, 10.0), new OrderRequest.Line(2L, 1, 20.0)),
+                pending("b", new OrderRequest.Line(2L, 1, 15.0)),
+                pending("c", new OrderRequest.Line(3L, 1, 5.0))));
+
+        verify(productService, times(1)).getProductsByIds(anyCollection());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        assertEquals(Order.Status.ACCEPTED, results.get(0).status());
+        assertEquals(40.0, results.get(0).total());
+        assertEquals(Order.Status.REJECTED, results.get(1).status());
+        assertEquals(Order.Status.REJECTED, results.get(2).status());
+        assertEquals(3, service.processedOrders());
+    }
+
+    @Test
+    void testFullQueueIsRejected() {
+        OrderIngestionService service = newService(1);
+        OrderRequest request = new OrderRequest(List.of(new OrderRequest.Line(1L, 1, 10.0)));
+
+        service.submit("user1", request);
+
+        OrderQueueFullException ex = assertThrows(OrderQueueFullException.class,
+                () -> service.submit("user1", request));
+        assertEquals(1, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testFailedBatchIsRetriedOrderByOrder() throws InterruptedException {
+        OrderIngestionService service = newService(10);
+        when(productService.getProductsByIds(anyCollection())).thenReturn(Map.of(
+                1L, new Product(1L, "Prod1", 10.0)));
+        // Any insert that carries the order of "broken" fails, the others go through
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO orders"), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> "broken".equals(row[1]))) {
+                throw new DataIntegrityViolationException("value too long for column USERNAME");
+            }
+            return new int[rows.size()];
+        });
+        OrderRequest request = new OrderRequest(List.of(new OrderRequest.Line(1L, 1, 10.0)));
+        String first = service.submit("user1", request).orderId();
+        String broken = service.submit("broken", request).orderId();
+        String last = service.submit("user2", request).orderId();
+
+        service.start();
+        service.stop();
+
+        assertEquals(2, service.processedOrders());
+        assertEquals(1, service.failedOrders());
+        OrderDetails details = service.getOrder(broken);
+        assertEquals("FAILED", details.status());
+        assertTrue(details.reason().contains("value too long"), details.reason());
+        // One failed batch, then one insert per order
+        verify(jdbcTemplate, times(4)).batchUpdate(startsWith("INSERT INTO orders"), anyList());
+        assertThrows(OrderNotFoundException.class, () -> service.getOrder(first));
+        assertThrows(OrderNotFoundException.class, () -> service.getOrder(last));
+    }
+
+    @Test
+    void testTransientFailureLosesNoOrder() throws InterruptedException {
+        OrderIngestionService service = newService(10);
+        when(productService.getProductsByIds(anyCollection()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(Map.of(1L, new Product(1L, "Prod1", 10.0)));
+        OrderRequest request = new OrderRequest(List.of(new OrderRequest.Line(1L, 1, 10.0)));
+        String first = service.submit("user1", request).orderId();
+        String second = service.submit("user2", request).orderId();
+
+        service.start();
+        service.stop();
+
+        assertEquals(2, service.processedOrders());
+        assertEquals(0, service.failedOrders());
+        // Persisted orders are read back from the repository, which is a mock here
+        assertThrows(OrderNotFoundException.class, () -> service.getOrder(first));
+        assertThrows(OrderNotFoundException.class, () -> service.getOrder(second));
+    }
+
+    @Test
+    void testOrderPersistedDuringTheLookupIsNotReportedMissing() {
+        OrderIngestionService service = newService(10);
+        when(productService.getProductsByIds(anyCollection())).thenReturn(Map.of(
+                1L, new Product(1L, "Prod1", 10.0)));
+        String id = service.submit("user1", new OrderRequest(List.of(new OrderRequest.Line(1L, 1, 10.0))))
+                .orderId();
+        // The lookup misses, and the worker commits the order before getOrder looks any further
+        when(orderRepository.findById(id)).thenAnswer(invocation -> {
+            service.start();
+            service.stop();
+            return Optional.empty();
+        });
+
+        assertEquals("QUEUED", service.getOrder(id).status());
+        assertEquals(1, service.processedOrders());
+    }
+
+    @Test
+    void testOnlyTheLatestFailuresAreKept() {
+        OrderIngestionService service = new OrderIngestionService(productService, orderRepository,
+                orderLineRepository, jdbcTemplate, transactionManager, 10, 50, 1, 1, 2);
+        when(productService.getProductsByIds(anyCollection())).thenThrow(new QueryTimeoutException("timeout"));
+
+        service.persistOrSplit(List.of(pending("a", new OrderRequest.Line(1L, 1, 10.0))));
+        service.persistOrSplit(List.of(pending("b", new OrderRequest.Line(1L, 1, 10.0)),
+                pending("c", new OrderRequest.Line(1L, 1, 10.0))));
+
+        assertEquals(2, service.failedOrders());
+        assertThrows(OrderNotFoundException.class, () -> service.getOrder("a"));
+        assertEquals(Order.Status.FAILED.name(), service.getOrder("b").status());
+        assertEquals(Order.Status.FAILED.name(), service.getOrder("c").status());
+    }
+
+    private OrderIngestionService newService(int capacity) {
+        return new OrderIngestionService(productService, orderRepository, orderLineRepository, jdbcTemplate,
+                transactionManager, capacity, 50, 1, 1, 1000);
+    }
+
+    private static OrderIngestionService.PendingOrder pending(String id, OrderRequest.Line... lines) {
+        return new OrderIngestionService.PendingOrder(id, "user1", List.of(lines), Instant.now());
+    }
+}
@@ -0,0 +1,117 @@
+package com.vlad.store.store_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ProductExportService.class)
+public class ProductExportServiceTest {
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Product> products;
+
+    @BeforeEach
+    void setup() {
+        List<Product> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rows.add(new Product(null, "Produs " + i, i * 0.5));
+        }
+        rows.add(new Product(null, "Măr, roșu \"bio\"\nnou", 1e7));
+        rows.add(new Product(null, "back\\slash\ttab\u0001 😀", -2.5));
+        rows.add(new Product(null, null, 9.99));
+        rows.add(new Product(null, "Fără preț", null));
+        products = productRepository.saveAllAndFlush(rows).stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .toList();
+    }
+
+    @Test
+    void testNdjsonMatchesJackson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(ProductExportService.Format.NDJSON, out);
+
+        StringBuilder expected = new StringBuilder();
+        for (Product product : products) {
+            expected.append(objectMapper.writeValueAsString(product)).append('\n');
+        }
+        assertEquals(products.size(), rows);
+        assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCsvQuotesOnlyWhatNeedsIt() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(ProductExportService.Format.CSV, out);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        int n = products.size();
+
+        assertTrue(csv.startsWith("id,name,price,version\n" + products.get(0).getId() + ",Produs 0,0.0,0\n"));
+        assertTrue(csv.endsWith(
+                products.get(n - 4).getId() + ",\"Măr, roșu \"\"bio\"\"\nnou\",1.0E7,0\n"
+                        + products.get(n - 3).getId() + ",back\\slash\ttab\u0001 😀,-2.5,0\n"
+                        + products.get(n - 2).getId() + ",,9.99,0\n"
+                        + products.get(n - 1).getId() + ",Fără preț,,0\n"), csv.substring(csv.length() - 200));
+    }
+
+    @Test
+    void testFirstRowIsFlushedBeforeTheRest() throws IOException {
+        List<Integer> bytesAtFirstFlush = new ArrayList<>();
+        int[] writes = new int[1];
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                sink.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes[0]++;
+                sink.write(b, off, len);
+            }
+
+            @Override
+            public void flush() {
+                if (bytesAtFirstFlush.isEmpty()) {
+                    bytesAtFirstFlush.add(sink.size());
+                }
+            }
+        };
+
+        exportService.export(ProductExportService.Format.NDJSON, out);
+
+        // The first flush carries exactly one row; the rest goes out in buffer-sized writes
+        String firstRow = objectMapper.writeValueAsString(products.get(0)) + "\n";
+        assertEquals(firstRow.getBytes(StandardCharsets.UTF_8).length, bytesAtFirstFlush.get(0));
+        assertTrue(writes[0] <= 3 + sink.size() / ExportBuffer.SIZE, "writes: " + writes[0]);
+    }
+
+    @Test
+    void testUnknownFormat() {
+        assertEquals(ProductExportService.Format.NDJSON, ProductExportService.Format.parse("NDJSON"));
+        assertThrows(IllegalArgumentException.class, () -> ProductExportService.Format.parse("xml"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.vlad.store.store_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.audit.AuditLog;
+import com.vlad.store.store_management.dto.ImportReport;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AuditLog auditLog;
+
+    private ProductImportService importService;
+
+    // Names of the products in every chunk that reached insertBatch, committed or not
+    private final List<List<String>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        importService = new ProductImportService(productRepository, new ObjectMapper(), transactionManager,
+                eventPublisher, auditLog, 2);
+        long[] nextId = {1};
+        doAnswer(invocation -> {
+            List<Product> chunk = invocation.getArgument(0);
+            chunks.add(chunk.stream().map(Product::getName).toList());
+            if (chunk.stream().anyMatch(product -> "Broken".equals(product.getName()))) {
+                throw new DataIntegrityViolationException("value too long for column NAME");
+            }
+            chunk.forEach(product -> product.setId(nextId[0]++));
+            return null;
+        }).when(productRepository).insertBatch(anyList());
+    }
+
+    @Test
+    void testJsonArrayAndNdjsonAreBothAccepted() {
+        ImportReport array = importService.importProducts(body(
+                "[{\"name\":\"A\",\"price\":1.0},{\"name\":\"B\",\"price\":2.0},{\"name\":\"C\",\"price\":3.0}]"),
+                null);
+        ImportReport ndjson = importService.importProducts(body(
+                "{\"name\":\"D\",\"price\":4.0}\n{\"name\":\"E\",\"price\":5.0}\n"), null);
+
+        assertEquals(new ImportReport(3, 0, 2, List.of()), array);
+        assertEquals(new ImportReport(2, 0, 1, List.of()), ndjson);
+        assertEquals(List.of(List.of("A", "B"), List.of("C"), List.of("D", "E")), chunks);
+    }
+
+    @Test
+    void testIdFromTheBodyIsIgnoredAndPriceIsOptional() {
+        ImportReport report = importService.importProducts(body(
+                "{\"id\":500,\"name\":\"A\",\"price\":1.0}\n{\"name\":\"Without price\"}"), null);
+
+        assertEquals(2, report.imported());
+        ArgumentCaptor<ProductChangedEvent> events = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(1L, events.getAllValues().get(0).id());
+        assertEquals("Without price", events.getAllValues().get(1).name());
+        assertNull(events.getAllValues().get(1).price());
+    }
+
+    @Test
+    void testMalformedLineStopsTheImportAfterTheCommittedChunks() {
+        ImportReport report = importService.importProducts(body(
+                "{\"name\":\"A\",\"price\":1.0}",
+                "{\"name\":\"B\",\"price\":2.0}",
+                "{\"name\":\"C\",\"price\":3.0}",
+                "{\"name\":\"D\",\"price\":",
+                "{\"name\":\"E\",\"price\":5.0}"), null);
+
+        // C was parsed but never committed; nothing after the bad line is read
+        assertEquals(2, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals(2, report.chunks());
+        ImportReport.ChunkFailure failure = report.failures().get(0);
+        assertEquals(1, failure.chunk());
+        assertEquals(2, failure.firstItem());
+        assertEquals(1, failure.size());
+        assertTrue(failure.error().startsWith("Malformed input"), failure.error());
+        assertEquals(List.of(List.of("A", "B")), chunks);
+    }
+
+    @Test
+    void testFailingChunkRollsBackOnlyItsOwnRows() {
+        ImportReport report = importService.importProducts(body(
+                "{\"name\":\"A\",\"price\":1.0}",
+                "{\"name\":\"B\",\"price\":2.0}",
+                "{\"name\":\"Broken\",\"price\":3.0}",
+                "{\"name\":\"C\",\"price\":4.0}",
+                "{\"name\":\"D\",\"price\":5.0}"), null);
+
+        assertEquals(3, report.imported());
+        assertEquals(2, report.failed());
+        assertEquals(3, report.chunks());
+        assertEquals(List.of(new ImportReport.ChunkFailure(1, 2, 2, "value too long for column NAME")),
+                report.failures());
+        // The whole chunk around the bad row is rolled back, the chunks around it are kept
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+        ArgumentCaptor<ProductChangedEvent> events = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertEquals(List.of("A", "B", "D"), events.getAllValues().stream().map(ProductChangedEvent::name).toList());
+    }
+
+    private static ByteArrayInputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
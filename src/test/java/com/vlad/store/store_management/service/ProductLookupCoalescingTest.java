@@ -0,0 +1,159 @@
+package com.vlad.store.store_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.store.store_management.audit.AuditLog;
+import com.vlad.store.store_management.cache.OffHeapProductStore;
+import com.vlad.store.store_management.cache.ProductCache;
+import com.vlad.store.store_management.cache.SingleFlight;
+import com.vlad.store.store_management.changes.ProductChangeLog;
+import com.vlad.store.store_management.event.ProductChangedEvent;
+import com.vlad.store.store_management.exception.ProductNotFoundException;
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.repository.ProductRepository;
+import com.vlad.store.store_management.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ProductLookupCoalescingTest {
+
+    private static final int BURST = 64;
+
+    private ProductRepository productRepository;
+    private ProductService productService;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setup() {
+        productRepository = mock(ProductRepository.class);
+        productService = new ProductService(productRepository, mock(ProductSearchIndex.class),
+                new ProductCache(100, Duration.ofMinutes(5)),
+                new OffHeapProductStore(null, null, new ObjectMapper(), false, 0),
+                mock(ApplicationEventPublisher.class), mock(AuditLog.class), mock(ProductChangeLog.class));
+        release = new CountDownLatch(1);
+    }
+
+    @Test
+    void testBurstByIdMakesOneDatabaseCall() throws Exception {
+        when(productRepository.findById(7L)).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(product(7L, "Viral", 3));
+        });
+
+        List<Product> results = burst(() -> productService.getProductById(7L), productService.getIdLookups());
+
+        verify(productRepository, times(1)).findById(7L);
+        for (Product product : results) {
+            assertEquals("Viral", product.getName());
+            assertEquals(3, product.getVersion());
+        }
+        assertNotSame(results.get(0), results.get(1));
+        assertEquals(1, productService.getIdLookups().loads());
+        assertEquals(BURST - 1, productService.getIdLookups().shared());
+        assertEquals(BURST, productService.getIdLookups().collapseRatio());
+        assertEquals(0, productService.getIdLookups().inFlight());
+
+        // The shared load filled the near-cache
+        productService.getProductById(7L);
+        verify(productRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void testBurstByNameMakesOneDatabaseCall() throws Exception {
+        when(productRepository.findByName("Viral")).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(product(7L, "Viral", 0));
+        });
+
+        List<Optional<Product>> results = burst(() -> productService.getProductByName("Viral"),
+                productService.getNameLookups());
+
+        verify(productRepository, times(1)).findByName("Viral");
+        for (Optional<Product> product : results) {
+            assertEquals(7L, product.orElseThrow().getId());
+        }
+        assertEquals(1, productService.getNameLookups().loads());
+    }
+
+    @Test
+    void testFailureIsSharedButNotRemembered() throws Exception {
+        when(productRepository.findById(9L)).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> burst(() -> productService.getProductById(9L), productService.getIdLookups()));
+        assertInstanceOf(ProductNotFoundException.class, failure.getCause());
+        verify(productRepository, times(1)).findById(9L);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductById(9L));
+        verify(productRepository, times(2)).findById(9L);
+    }
+
+    @Test
+    void testLookupAfterAChangeDoesNotJoinTheOlderLoad() throws Exception {
+        CountDownLatch firstCallStarted = new CountDownLatch(1);
+        when(productRepository.findById(5L))
+                .thenAnswer(invocation -> {
+                    firstCallStarted.countDown();
+                    release.await();
+                    return Optional.of(product(5L, "Old name", 0));
+                })
+                .thenReturn(Optional.of(product(5L, "New name", 1)));
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<Product> before = executor.submit(() -> productService.getProductById(5L));
+            assertTrue(firstCallStarted.await(10, TimeUnit.SECONDS));
+
+            productService.onProductChanged(ProductChangedEvent.upsert(product(5L, "New name", 1)));
+            assertEquals("New name", productService.getProductById(5L).getName());
+
+            release.countDown();
+            assertEquals("Old name", before.get().getName());
+        }
+        verify(productRepository, times(2)).findById(5L);
+    }
+
+    // Starts BURST concurrent calls, lets the (blocked) database call finish only once
+    // every caller has entered the single-flight, and collects the results
+    private <T> List<T> burst(Callable<T> call, SingleFlight<?, ?> lookups) throws Exception {
+        List<Future<T>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(BURST)) {
+            for (int i = 0; i < BURST; i++) {
+                futures.add(executor.submit(call));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (lookups.requests() < BURST && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static Product product(Long id, String name, int version) {
+        Product product = new Product(id, name, 10.0);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,68 @@
+package com.vlad.store.store_management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StockCounterTest {
+
+    @Test
+    void testReserveCommitRelease() {
+        StockCounter counter = new StockCounter(10);
+
+        assertTrue(counter.tryReserve(4));
+        assertTrue(counter.tryReserve(6));
+        assertFalse(counter.tryReserve(1));
+
+        counter.commit(4);
+        counter.release(6);
+
+        assertEquals(6, counter.onHand());
+        assertEquals(6, counter.available());
+    }
+
+    @Test
+    void testSetOnHandKeepsReservationsCovered() {
+        StockCounter counter = new StockCounter(10);
+        assertTrue(counter.tryReserve(7));
+
+        assertFalse(counter.setOnHand(5));
+        assertTrue(counter.setOnHand(20));
+
+        assertEquals(20, counter.onHand());
+        assertEquals(13, counter.available());
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        StockCounter counter = new StockCounter(1000);
+        List<Future<Integer>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            for (int t = 0; t < 32; t++) {
+                workers.add(executor.submit(() -> {
+                    int reserved = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (counter.tryReserve(1)) {
+                            reserved++;
+                        }
+                    }
+                    return reserved;
+                }));
+            }
+        }
+
+        int total = 0;
+        for (Future<Integer> worker : workers) {
+            total += worker.get();
+        }
+        assertEquals(1000, total);
+        assertEquals(0, counter.available());
+        assertEquals(1000, counter.onHand());
+    }
+}
@@ -0,0 +1,165 @@
+package com.vlad.store.store_management.snapshot;
+
+import com.vlad.store.store_management.model.Product;
+import com.vlad.store.store_management.model.User;
+import com.vlad.store.store_management.repository.ProductRepository;
+import com.vlad.store.store_management.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: restore commits, and the id generators are restarted outside a transaction
+@DataJpaTest
+@Import(CatalogSnapshotService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogSnapshotServiceTest {
+
+    @Autowired
+    private CatalogSnapshotService snapshotService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setup() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            products.add(new Product(null, "Produs " + i + " – ediție \"specială\"", i * 1.25));
+        }
+        products.add(new Product(null, null, 9.99));
+        products.add(new Product(null, "Fără preț", null));
+        productRepository.saveAll(products);
+        userRepository.saveAll(List.of(
+                new User(null, "user1", "userpass", "ROLE_USER"),
+                new User(null, "admin1", "adminpass", "ROLE_ADMIN")));
+    }
+
+    @AfterEach
+    void cleanup() {
+        productRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testRestoreReproducesTheTables(boolean compress) throws IOException {
+        List<String> products = productRows();
+        List<String> users = userRows();
+        Path file = dir.resolve("catalog.snap");
+
+        CatalogSnapshotService.Summary exported = snapshotService.export(file, compress);
+        productRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        productRepository.save(new Product(null, "replaced by the restore", 1.0));
+        CatalogSnapshotService.Summary restored = snapshotService.restore(file);
+
+        assertEquals(products.size(), exported.products());
+        assertEquals(2, exported.users());
+        assertEquals(Files.size(file), exported.bytes());
+        assertEquals(exported.products(), restored.products());
+        assertEquals(products, productRows());
+        assertEquals(users, userRows());
+        assertFalse(Files.exists(dir.resolve("catalog.snap.tmp")));
+    }
+
+    @Test
+    void testNewRowsGetIdsAboveTheRestoredOnes() throws IOException {
+        Path file = dir.resolve("catalog.snap");
+        snapshotService.export(file, true);
+        snapshotService.restore(file);
+        Set<Long> productIds = productRepository.findAll().stream().map(Product::getId).collect(Collectors.toSet());
+        long maxUserId = userRepository.findAll().stream().mapToLong(User::getId).max().orElseThrow();
+
+        Product product = productRepository.save(new Product(null, "after restore", 2.0));
+        User user = userRepository.save(new User(null, "user2", "pass", "ROLE_USER"));
+
+        assertFalse(productIds.contains(product.getId()));
+        assertTrue(user.getId() > maxUserId);
+    }
+
+    // Hibernate keeps handing out ids from the block it took before the restore; the
+    // sequence must not move back under that block
+    @Test
+    void testRowsSavedBeforeAndAfterTheRestoreGetDistinctIds() throws IOException {
+        Path file = dir.resolve("catalog.snap");
+        snapshotService.export(file, false);
+        productRepository.saveAll(products("before restore", 120));
+        snapshotService.restore(file);
+        Set<Long> restored = productRepository.findAll().stream().map(Product::getId).collect(Collectors.toSet());
+
+        List<Product> saved = productRepository.saveAll(products("after restore", 120));
+
+        Set<Long> savedIds = saved.stream().map(Product::getId).collect(Collectors.toSet());
+        assertEquals(120, savedIds.size());
+        assertTrue(savedIds.stream().noneMatch(restored::contains));
+        assertEquals(restored.size() + 120, productRepository.count());
+    }
+
+    @Test
+    void testDamagedSnapshotLeavesTheTablesAlone() throws IOException {
+        Path file = dir.resolve("catalog.snap");
+        snapshotService.export(file, false);
+        byte[] bytes = Files.readAllBytes(file);
+        List<String> before = productRows();
+
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length / 2] ^= 0x5A;
+        Files.write(file, flipped);
+        IOException corrupt = assertThrows(IOException.class, () -> snapshotService.restore(file));
+        assertTrue(corrupt.getMessage().contains("checksum"), corrupt.getMessage());
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+        IOException truncated = assertThrows(IOException.class, () -> snapshotService.restore(file));
+        assertTrue(truncated.getMessage().contains("truncated"), truncated.getMessage());
+
+        assertEquals(before, productRows());
+    }
+
+    private static List<Product> products(String prefix, int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(new Product(null, prefix + " " + i, 1.0 + i));
+        }
+        return products;
+    }
+
+    private List<String> productRows() {
+        return productRepository.findAll().stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .map(p -> p.getId() + "|" + p.getName() + "|" + p.getPrice() + "|" + p.getVersion())
+                .toList();
+    }
+
+    private List<String> userRows() {
+        return userRepository.findAll().stream()
+                .sorted(Comparator.comparing(User::getId))
+                .map(u -> u.getId() + "|" + u.getUsername() + "|" + u.getPassword() + "|" + u.getRole())
+                .toList();
+    }
+}